@@ -1,8 +1,18 @@
 import structures.FibonacciHeap;
+import structures.HeapPublisher;
+import structures.KWayMerge;
+import structures.RadixHeap;
+import structures.Simulation;
+import structures.SoftHeap;
+import structures.TopKHeap;
 import utils.Logger;
 
+import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
 
 public class Main {
     public static void main(String[] args) {
@@ -11,6 +21,17 @@ public class Main {
         testInsert();
         testDecreaseKey();
         testDelete();
+        testBoundedDeleteMin();
+        testTopK();
+        testStream();
+        testIncreaseKey();
+        testLazyDelete();
+        testRadixHeap();
+        testSoftHeap();
+        testPublisher();
+        testSimulation();
+        testKWayMerge();
+        testExport();
     }
 
 
@@ -70,6 +91,23 @@ public class Main {
 
     }
 
+    public static void testIncreaseKey() {
+        FibonacciHeap<Integer> heap = FibonacciHeap.makeHeap();
+        List<FibonacciHeap.Node<Integer>> nodes = heap.insertAll(5, 2, 3, 4, 1, 1, 10, 9, 8, 7, 6);
+
+        nodes.remove(heap.deleteMin());
+
+        Logger.printHeader("IncreaseKey test");
+        heap.display();
+        nodes.forEach(x -> {
+            Logger.printDetails("Increasing key " + x.getElement() + " to " + (x.getElement() + 10));
+            heap.increaseKey(x, x.getElement() + 10);
+            heap.display();
+        });
+        Logger.printDivider();
+
+    }
+
     public static void testUnion() {
 
         FibonacciHeap<Integer> heap1 = generateRandomHeap(10);
@@ -90,6 +128,217 @@ public class Main {
 
     }
 
+    public static void testLazyDelete() {
+        FibonacciHeap<Integer> heap = FibonacciHeap.makeHeap();
+        heap.setMaxTombstoneRatio(0.5);
+        List<FibonacciHeap.Node<Integer>> nodes = heap.insertAll(5, 2, 3, 4, 1, 1, 10, 9, 8, 7, 6);
+
+        nodes.remove(heap.deleteMin());
+        Collections.shuffle(nodes);
+
+        Logger.printHeader("Lazy delete test");
+        Logger.printDetails("Initial heap");
+        heap.display();
+
+        nodes.forEach(x -> {
+            Logger.printDetails("Deleting " + x.getElement());
+            heap.delete(x);
+            heap.display();
+        });
+        Logger.printDivider();
+    }
+
+    public static void testBoundedDeleteMin() {
+        final int count = 10;
+        FibonacciHeap<Integer> heap = FibonacciHeap.makeHeap();
+        heap.setConsolidationBudget(2);
+        for (int i = 0; i < count; i++) {
+            heap.insert((int) (ThreadLocalRandom.current().nextDouble() * 100));
+        }
+
+        Logger.printHeader("Bounded deleteMin test");
+        for (int i = 0; i < count + 1; i++) {
+            Logger.printDetails("Minimum: " + (heap.minimum() == null ? "-" : heap.minimum()));
+            heap.display();
+            heap.deleteMin();
+        }
+        Logger.printDivider();
+    }
+
+    public static void testRadixHeap() {
+        RadixHeap<Long> heap = RadixHeap.makeHeap();
+        long[] numbers = {5, 2, 3, 4, 1, 6, 11, 0, 9, 10};
+
+        Logger.printHeader("Radix heap test");
+        for (long number : numbers) {
+            heap.insert(number);
+        }
+        while (!heap.isEmpty()) {
+            RadixHeap.Node<Long> min = heap.deleteMin();
+            Logger.printDetails("Deleted minimum: " + min);
+            if (min.getElement() < 8) {
+                Logger.print("Inserting: " + (min.getElement() + 8));
+                heap.insert(min.getElement() + 8);
+            }
+        }
+        Logger.printDivider();
+    }
+
+    public static void testSoftHeap() {
+        final int count = 100000;
+
+        Logger.printHeader("Soft heap test");
+        for (double errorRate : new double[]{0.001, 0.01, 0.1, 0.3}) {
+            SoftHeap<Integer> heap = new SoftHeap<>(errorRate);
+            for (int i = 0; i < count; i++) {
+                heap.insert(ThreadLocalRandom.current().nextInt());
+            }
+
+            int inversions = 0;
+            int previous = Integer.MIN_VALUE;
+            while (!heap.isEmpty()) {
+                int element = heap.deleteMin().getElement();
+                if (element < previous) inversions++;
+                previous = element;
+            }
+
+            Logger.printDetails("Error rate: " + errorRate);
+            Logger.print("Corrupted extractions: " + heap.getCorruptedCount() + " of " + count);
+            Logger.print("Out of order extractions: " + inversions);
+        }
+        Logger.printDivider();
+    }
+
+    public static void testPublisher() {
+        HeapPublisher<Integer> publisher = new HeapPublisher<>();
+        CountDownLatch done = new CountDownLatch(1);
+        int[] numbers = {5, 2, 3, 4, 1, 6, 11, 0, 9, 10};
+
+        Logger.printHeader("Publisher test");
+        for (int number : numbers) {
+            publisher.insert(number);
+        }
+        publisher.subscribe(new Flow.Subscriber<Integer>() {
+            private Flow.Subscription subscription;
+            private int outstanding;
+
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                this.subscription = subscription;
+                Logger.printDetails("Requesting 3");
+                outstanding = 3;
+                subscription.request(3);
+            }
+
+            @Override
+            public void onNext(Integer item) {
+                Logger.print("Received: " + item);
+                if (--outstanding == 0) {
+                    Logger.printDetails("Requesting 3");
+                    outstanding = 3;
+                    subscription.request(3);
+                }
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                Logger.printDetails("Error: " + throwable);
+                done.countDown();
+            }
+
+            @Override
+            public void onComplete() {
+                Logger.printDetails("Completed");
+                done.countDown();
+            }
+        });
+        publisher.close();
+
+        try {
+            done.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        Logger.printDivider();
+    }
+
+    public static void testSimulation() {
+        Simulation simulation = new Simulation();
+
+        Logger.printHeader("Simulation test");
+        Simulation.Event late = simulation.scheduleAt(9, () -> Logger.print(simulation.now() + ": late event"));
+        Simulation.Event cancelled = simulation.scheduleAt(4, () -> Logger.print(simulation.now() + ": cancelled event"));
+        for (int i = 1; i <= 3; i++) {
+            final int id = i;
+            simulation.scheduleAt(2, () -> Logger.print(simulation.now() + ": event " + id));
+        }
+        simulation.scheduleAt(1, () -> {
+            Logger.print(simulation.now() + ": cancelling the event at 4 and moving the event at 9 to 2");
+            simulation.cancel(cancelled);
+            simulation.reschedule(late, 2);
+        });
+
+        simulation.run();
+        Logger.printDetails("Events run: " + simulation.getExecutedCount());
+        Logger.printDivider();
+    }
+
+    public static void testKWayMerge() {
+        List<List<Integer>> runs = Arrays.asList(
+                Arrays.asList(1, 4, 7, 10),
+                Arrays.asList(2, 5, 8),
+                Arrays.asList(0, 3, 6, 9, 11));
+        List<Iterator<Integer>> iterators = runs.stream().map(List::iterator).collect(Collectors.toList());
+
+        Logger.printHeader("K-way merge test");
+        runs.forEach(run -> Logger.print("Run: " + run));
+        List<Integer> merged = new ArrayList<>();
+        KWayMerge.merge(iterators).forEachRemaining(merged::add);
+        Logger.printDetails("Merged: " + merged);
+        Logger.printDivider();
+    }
+
+    public static void testExport() {
+        FibonacciHeap<Integer> heap = generateRandomHeap(10);
+        heap.deleteMin();
+
+        Logger.printHeader("Export test");
+        try {
+            Logger.printDetails("DOT");
+            heap.export(System.out, FibonacciHeap.ExportFormat.DOT, Integer.MAX_VALUE, 1);
+            Logger.printDetails("JSON, depth 1");
+            heap.export(System.out, FibonacciHeap.ExportFormat.JSON, 1, 1);
+        } catch (IOException e) {
+            Logger.printError("Export failed: " + e.getMessage());
+        }
+        Logger.printDivider();
+    }
+
+    public static void testTopK() {
+        TopKHeap<Integer> heap = new TopKHeap<>(3);
+        int[] numbers = {5, 2, 3, 4, 1, 6, 11, 0, 9, 10};
+
+        Logger.printHeader("TopK test");
+        for (int number : numbers) {
+            Logger.printDetails("Offering: " + number + (heap.offer(number) ? " kept" : " rejected"));
+            Logger.print("Worst kept: " + heap.worst());
+        }
+        Logger.printDetails("Top 3: " + heap.drainSorted());
+        Logger.printDivider();
+    }
+
+    public static void testStream() {
+        FibonacciHeap<Integer> heap = generateRandomHeap(10);
+        heap.deleteMin();
+
+        Logger.printHeader("Stream test");
+        heap.display();
+        Logger.printDetails("Stream: " + heap.stream().collect(Collectors.toList()));
+        Logger.printDetails("Sorted stream: " + heap.sortedStream().collect(Collectors.toList()));
+        Logger.printDetails("Size after streams: " + heap.size());
+        Logger.printDivider();
+    }
+
     public static void testDelete() {
         FibonacciHeap<Integer> heap = FibonacciHeap.makeHeap();
         List<FibonacciHeap.Node<Integer>> nodes = heap.insertAll(5, 2, 3, 4, 1, 1, 10, 9, 8, 7, 6);
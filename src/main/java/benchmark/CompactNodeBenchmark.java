@@ -0,0 +1,117 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import structures.CompactFibonacciHeap;
+import structures.FibonacciHeap;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the throughput of FibonacciHeap and CompactFibonacciHeap. Run with
+ * the GC profiler (as main does) to get the bytes allocated per operation,
+ * where gc.alloc.rate.norm of the insert benchmarks divided by elementCount
+ * is the memory per entry.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(time = 1, timeUnit = TimeUnit.SECONDS)
+public class CompactNodeBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    public int elementCount;
+
+    List<Integer> elements;
+
+    @State(Scope.Benchmark)
+    public static class FullHeaps {
+
+        FibonacciHeap<Integer> heap;
+
+        List<FibonacciHeap.Node<Integer>> nodes;
+
+        CompactFibonacciHeap<Integer> compactHeap;
+
+        List<CompactFibonacciHeap.Node<Integer>> compactNodes;
+
+        @Setup(Level.Invocation)
+        public void fillHeaps(CompactNodeBenchmark benchmark) {
+            heap = FibonacciHeap.makeHeap();
+            nodes = new ArrayList<>(benchmark.elementCount);
+            compactHeap = CompactFibonacciHeap.makeHeap();
+            compactNodes = new ArrayList<>(benchmark.elementCount);
+
+            for (Integer element : benchmark.elements) {
+                int key = element >> 1;
+                nodes.add(heap.insert(key));
+                compactNodes.add(compactHeap.insert(key));
+            }
+
+            // Consolidate the root lists into trees.
+            heap.insert(Integer.MIN_VALUE);
+            heap.deleteMin();
+            compactHeap.insert(Integer.MIN_VALUE);
+            compactHeap.deleteMin();
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void generateItems() {
+        elements = Benchmark.generateElements(elementCount);
+    }
+
+    @org.openjdk.jmh.annotations.Benchmark
+    public FibonacciHeap<Integer> insert() {
+        FibonacciHeap<Integer> heap = FibonacciHeap.makeHeap();
+        elements.forEach(heap::insert);
+        return heap;
+    }
+
+    @org.openjdk.jmh.annotations.Benchmark
+    public CompactFibonacciHeap<Integer> insertCompact() {
+        CompactFibonacciHeap<Integer> heap = CompactFibonacciHeap.makeHeap();
+        elements.forEach(heap::insert);
+        return heap;
+    }
+
+    @org.openjdk.jmh.annotations.Benchmark
+    public void deleteMin(FullHeaps full) {
+        while (!full.heap.isEmpty()) {
+            full.heap.deleteMin();
+        }
+    }
+
+    @org.openjdk.jmh.annotations.Benchmark
+    public void deleteMinCompact(FullHeaps full) {
+        while (!full.compactHeap.isEmpty()) {
+            full.compactHeap.deleteMin();
+        }
+    }
+
+    @org.openjdk.jmh.annotations.Benchmark
+    public void decreaseKey(FullHeaps full) {
+        full.nodes.forEach(node -> full.heap.decreaseKey(node, node.getElement() - (1 << 29)));
+    }
+
+    @org.openjdk.jmh.annotations.Benchmark
+    public void decreaseKeyCompact(FullHeaps full) {
+        full.compactNodes.forEach(node -> full.compactHeap.decreaseKey(node, node.getElement() - (1 << 29)));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(CompactNodeBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .forks(1)
+                .build();
+        new Runner(opt).run();
+    }
+}
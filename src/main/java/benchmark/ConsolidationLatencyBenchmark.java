@@ -0,0 +1,82 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import structures.FibonacciHeap;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the latency distribution of single heap operations on a workload
+ * that alternates bursts of inserts with bursts of deleteMin. The sample time
+ * mode reports p0.999 and p1.00 (maximum), which show the consolidation stalls
+ * of the default heap (budget 0) against the incremental mode.
+ *
+ * <p>drain measures the throughput of filling a heap with a burst and
+ * emptying it again, which shows whether small budgets keep up with the
+ * roots every deleteMin adds.</p>
+ */
+@BenchmarkMode(Mode.SampleTime)
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(time = 1, timeUnit = TimeUnit.SECONDS)
+public class ConsolidationLatencyBenchmark {
+
+    @Param({"0", "1", "2", "8", "32", "128"})
+    public int consolidationBudget;
+
+    @Param({"10000", "100000"})
+    public int burstSize;
+
+    FibonacciHeap<Integer> heap;
+
+    List<Integer> elements;
+
+    int operation;
+
+    @Setup(Level.Iteration)
+    public void fillHeap() {
+        elements = Benchmark.generateElements(burstSize);
+        heap = FibonacciHeap.makeHeap();
+        heap.setConsolidationBudget(consolidationBudget);
+        operation = 0;
+    }
+
+    @org.openjdk.jmh.annotations.Benchmark
+    public FibonacciHeap.Node<Integer> operation() {
+        int index = operation++ % (2 * burstSize);
+
+        if (index < burstSize) {
+            return heap.insert(elements.get(index));
+        }
+        return heap.deleteMin();
+    }
+
+    @org.openjdk.jmh.annotations.Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public long drain() {
+        FibonacciHeap<Integer> drained = FibonacciHeap.makeHeap();
+        drained.setConsolidationBudget(consolidationBudget);
+        elements.forEach(drained::insert);
+
+        long sum = 0;
+        while (!drained.isEmpty()) {
+            sum += drained.deleteMin().getElement();
+        }
+        return sum;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(ConsolidationLatencyBenchmark.class.getSimpleName())
+                .forks(1)
+                .build();
+        new Runner(opt).run();
+    }
+}
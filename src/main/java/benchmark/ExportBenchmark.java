@@ -0,0 +1,66 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import structures.FibonacciHeap;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures FibonacciHeap.export into a writer that discards its output, so
+ * the score is the cost of walking the forest and formatting it. maxDepth 3
+ * and treeStride 8 show the sampled exports meant for very large heaps.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(time = 1, timeUnit = TimeUnit.SECONDS)
+public class ExportBenchmark {
+
+    @Param({"1000000", "10000000"})
+    public int elementCount;
+
+    @Param({"DOT", "JSON"})
+    public FibonacciHeap.ExportFormat format;
+
+    @Param({"2147483647", "3"})
+    public int maxDepth;
+
+    @Param({"1", "8"})
+    public int treeStride;
+
+    FibonacciHeap<Integer> heap;
+
+    @Setup(Level.Trial)
+    public void fillHeap() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        heap = FibonacciHeap.makeHeap();
+        for (int i = 0; i < elementCount; i++) {
+            heap.insert(random.nextInt());
+        }
+
+        // Consolidate the root list into trees.
+        heap.deleteMin();
+    }
+
+    @org.openjdk.jmh.annotations.Benchmark
+    public FibonacciHeap<Integer> export() throws IOException {
+        heap.export(Writer.nullWriter(), format, maxDepth, treeStride);
+        return heap;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(ExportBenchmark.class.getSimpleName())
+                .forks(1)
+                .build();
+        new Runner(opt).run();
+    }
+}
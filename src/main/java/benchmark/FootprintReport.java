@@ -0,0 +1,43 @@
+package benchmark;
+
+import org.openjdk.jol.info.ClassLayout;
+import org.openjdk.jol.info.GraphLayout;
+import structures.CompactFibonacciHeap;
+import structures.FibonacciHeap;
+import utils.Logger;
+
+/**
+ * Prints the field layout of the FibonacciHeap and CompactFibonacciHeap
+ * nodes and the retained memory per entry of consolidated heaps, as measured
+ * by JOL. Elements come from the Integer cache, so they are shared and the
+ * per entry size is the node overhead.
+ */
+public class FootprintReport {
+
+    private static final int ENTRIES = 1_000_000;
+
+    public static void main(String[] args) {
+        Logger.printHeader("Node layouts");
+        Logger.print(ClassLayout.parseClass(FibonacciHeap.Node.class).toPrintable());
+        Logger.print(ClassLayout.parseClass(CompactFibonacciHeap.Node.class).toPrintable());
+
+        FibonacciHeap<Integer> heap = FibonacciHeap.makeHeap();
+        CompactFibonacciHeap<Integer> compactHeap = CompactFibonacciHeap.makeHeap();
+        for (int i = 0; i < ENTRIES; i++) {
+            heap.insert(i & 127);
+            compactHeap.insert(i & 127);
+        }
+        heap.insert(-1);
+        heap.deleteMin();
+        compactHeap.insert(-1);
+        compactHeap.deleteMin();
+
+        Logger.printHeader("Memory per entry");
+        Logger.print("FibonacciHeap:        " + bytesPerEntry(heap) + " bytes");
+        Logger.print("CompactFibonacciHeap: " + bytesPerEntry(compactHeap) + " bytes");
+    }
+
+    private static double bytesPerEntry(Object heap) {
+        return (double) GraphLayout.parseInstance(heap).totalSize() / ENTRIES;
+    }
+}
@@ -0,0 +1,146 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import structures.FibonacciHeap;
+import structures.KWayMerge;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Merges elementCount elements split into runCount sorted runs. The heap
+ * benchmarks compare replacing the minimum in place with replaceMin to a
+ * deleteMin followed by an insert, with java.util.PriorityQueue as a
+ * reference. mergeIterators measures KWayMerge itself.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(time = 1, timeUnit = TimeUnit.SECONDS)
+public class KWayMergeBenchmark {
+
+    @Param({"1000000"})
+    public int elementCount;
+
+    @Param({"2", "16", "1024", "100000"})
+    public int runCount;
+
+    List<List<Integer>> runs;
+
+    /**
+     * Cursor over a run, ordered by its head.
+     */
+    static final class Cursor implements Comparable<Cursor> {
+
+        final Iterator<Integer> iterator;
+
+        Integer head;
+
+        Cursor(Iterator<Integer> iterator) {
+            this.iterator = iterator;
+            this.head = iterator.next();
+        }
+
+        boolean advance() {
+            if (!iterator.hasNext()) return false;
+            head = iterator.next();
+            return true;
+        }
+
+        @Override
+        public int compareTo(Cursor other) {
+            return head.compareTo(other.head);
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void generateRuns() {
+        List<Integer> elements = Benchmark.generateElements(elementCount);
+        int runLength = elementCount / runCount;
+
+        runs = new ArrayList<>(runCount);
+        for (int i = 0; i < runCount; i++) {
+            List<Integer> run = new ArrayList<>(elements.subList(i * runLength, (i + 1) * runLength));
+            Collections.sort(run);
+            runs.add(run);
+        }
+    }
+
+    private List<Cursor> cursors() {
+        List<Cursor> cursors = new ArrayList<>(runCount);
+        for (List<Integer> run : runs) {
+            cursors.add(new Cursor(run.iterator()));
+        }
+        return cursors;
+    }
+
+    @org.openjdk.jmh.annotations.Benchmark
+    public long replaceMin() {
+        FibonacciHeap<Cursor> heap = FibonacciHeap.makeHeap();
+        cursors().forEach(heap::insert);
+
+        long sum = 0;
+        while (!heap.isEmpty()) {
+            Cursor cursor = heap.minimum().getElement();
+            sum += cursor.head;
+            if (cursor.advance()) heap.replaceMin(cursor);
+            else heap.deleteMin();
+        }
+        return sum;
+    }
+
+    @org.openjdk.jmh.annotations.Benchmark
+    public long deleteMinInsert() {
+        FibonacciHeap<Cursor> heap = FibonacciHeap.makeHeap();
+        cursors().forEach(heap::insert);
+
+        long sum = 0;
+        while (!heap.isEmpty()) {
+            Cursor cursor = heap.deleteMin().getElement();
+            sum += cursor.head;
+            if (cursor.advance()) heap.insert(cursor);
+        }
+        return sum;
+    }
+
+    @org.openjdk.jmh.annotations.Benchmark
+    public long priorityQueue() {
+        PriorityQueue<Cursor> queue = new PriorityQueue<>(cursors());
+
+        long sum = 0;
+        while (!queue.isEmpty()) {
+            Cursor cursor = queue.poll();
+            sum += cursor.head;
+            if (cursor.advance()) queue.offer(cursor);
+        }
+        return sum;
+    }
+
+    @org.openjdk.jmh.annotations.Benchmark
+    public long mergeIterators() {
+        List<Iterator<Integer>> iterators = new ArrayList<>(runCount);
+        for (List<Integer> run : runs) {
+            iterators.add(run.iterator());
+        }
+
+        long sum = 0;
+        Iterator<Integer> merged = KWayMerge.merge(iterators);
+        while (merged.hasNext()) {
+            sum += merged.next();
+        }
+        return sum;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(KWayMergeBenchmark.class.getSimpleName())
+                .forks(1)
+                .build();
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,83 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import structures.FibonacciHeap;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a workload where 70% of the operations cancel a pending element
+ * and 30% extract the minimum, with eager deletion (ratio 0) and with lazy
+ * deletion at different compaction ratios.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(time = 1, timeUnit = TimeUnit.SECONDS)
+public class LazyDeleteBenchmark {
+
+    @Param({"10000", "100000"})
+    public int elementCount;
+
+    @Param({"0", "0.25", "0.5"})
+    public double maxTombstoneRatio;
+
+    List<Integer> elements;
+
+    FibonacciHeap<Integer> heap;
+
+    List<FibonacciHeap.Node<Integer>> cancelled;
+
+    @Setup(Level.Iteration)
+    public void generateItems() {
+        elements = Benchmark.generateElements(elementCount);
+    }
+
+    @Setup(Level.Invocation)
+    public void fillHeap() {
+        heap = FibonacciHeap.makeHeap();
+        heap.setMaxTombstoneRatio(maxTombstoneRatio);
+        cancelled = new ArrayList<>(elementCount);
+
+        // Cancelled elements get keys above the extracted ones, so deleteMin
+        // never removes an element that is cancelled later.
+        int extracted = elementCount * 3 / 10;
+        for (int i = 0; i < elementCount; i++) {
+            int key = elements.get(i) >>> 2;
+            if (i < extracted) {
+                heap.insert(key);
+            } else {
+                cancelled.add(heap.insert(key + (1 << 30)));
+            }
+        }
+        Collections.shuffle(cancelled);
+    }
+
+    @org.openjdk.jmh.annotations.Benchmark
+    public void cancelAndExtract() {
+        int next = 0;
+        for (int i = 0; i < elementCount; i++) {
+            if (i % 10 < 7) {
+                heap.delete(cancelled.get(next++));
+            } else {
+                heap.deleteMin();
+            }
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(LazyDeleteBenchmark.class.getSimpleName())
+                .forks(1)
+                .build();
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,89 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import structures.KWayMerge;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PrimitiveIterator;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Merges elementCount longs split into fileCount memory-mapped files of
+ * sorted values with KWayMerge. Every file is a mapping, so fileCount stays
+ * below the process limit of mappings.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(time = 1, timeUnit = TimeUnit.SECONDS)
+public class MappedMergeBenchmark {
+
+    @Param({"1000000"})
+    public int elementCount;
+
+    @Param({"2", "64", "1024", "16384"})
+    public int fileCount;
+
+    Path directory;
+
+    List<Path> files;
+
+    @Setup(Level.Trial)
+    public void writeFiles() throws IOException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        directory = Files.createTempDirectory("runs");
+        files = new ArrayList<>(fileCount);
+
+        for (int i = 0; i < fileCount; i++) {
+            long[] values = random.longs(elementCount / fileCount).toArray();
+            Arrays.sort(values);
+
+            Path file = directory.resolve("run" + i);
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+                for (long value : values) {
+                    out.writeLong(value);
+                }
+            }
+            files.add(file);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteFiles() throws IOException {
+        for (Path file : files) {
+            Files.delete(file);
+        }
+        Files.delete(directory);
+    }
+
+    @org.openjdk.jmh.annotations.Benchmark
+    public long mergeLongs() throws IOException {
+        long sum = 0;
+        PrimitiveIterator.OfLong merged = KWayMerge.mergeLongs(files);
+        while (merged.hasNext()) {
+            sum += merged.nextLong();
+        }
+        return sum;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(MappedMergeBenchmark.class.getSimpleName())
+                .forks(1)
+                .build();
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,99 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import structures.FibonacciHeap;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures building a heap from an array sequentially and with the fork/join
+ * builder on pools of increasing parallelism, and melding many per-partition
+ * heaps with unionAll.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(time = 1, timeUnit = TimeUnit.SECONDS)
+public class ParallelBuildBenchmark {
+
+    @Param({"1000000", "4000000"})
+    public int elementCount;
+
+    @Param({"1", "2", "4", "8"})
+    public int parallelism;
+
+    Integer[] elements;
+
+    ForkJoinPool pool;
+
+    @State(Scope.Benchmark)
+    public static class Partitions {
+
+        @Param({"100", "1000"})
+        public int partitionCount;
+
+        List<FibonacciHeap<Integer>> heaps;
+
+        @Setup(Level.Invocation)
+        public void fillHeaps() {
+            heaps = new ArrayList<>(partitionCount);
+            for (int i = 0; i < partitionCount; i++) {
+                FibonacciHeap<Integer> heap = FibonacciHeap.makeHeap();
+                for (int j = 0; j < 100; j++) {
+                    heap.insert(ThreadLocalRandom.current().nextInt());
+                }
+                heaps.add(heap);
+            }
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        elements = Benchmark.generateElements(elementCount).toArray(new Integer[0]);
+        pool = new ForkJoinPool(parallelism);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @org.openjdk.jmh.annotations.Benchmark
+    public FibonacciHeap<Integer> sequentialInsert() {
+        FibonacciHeap<Integer> heap = FibonacciHeap.makeHeap();
+        for (Integer element : elements) {
+            heap.insert(element);
+        }
+        return heap;
+    }
+
+    @org.openjdk.jmh.annotations.Benchmark
+    public FibonacciHeap<Integer> buildParallel() throws ExecutionException, InterruptedException {
+        return pool.submit(() -> FibonacciHeap.buildParallel(elements)).get();
+    }
+
+    @org.openjdk.jmh.annotations.Benchmark
+    public FibonacciHeap<Integer> unionAll(Partitions partitions) {
+        FibonacciHeap<Integer> heap = FibonacciHeap.makeHeap();
+        heap.unionAll(partitions.heaps);
+        return heap;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(ParallelBuildBenchmark.class.getSimpleName())
+                .forks(1)
+                .build();
+        new Runner(opt).run();
+    }
+}
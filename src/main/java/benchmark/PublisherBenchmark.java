@@ -0,0 +1,213 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import structures.FibonacciHeap;
+import structures.HeapPublisher;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures HeapPublisher. The drain benchmarks time how long a subscriber
+ * takes to receive every element of a heap, either filled up front or filled
+ * while subscribed, for fast and slow subscribers (work is the CPU tokens a
+ * subscriber burns per element). insertToDelivery samples the latency from
+ * an insert to its delivery to an idle subscriber.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(time = 1, timeUnit = TimeUnit.SECONDS)
+public class PublisherBenchmark {
+
+    @Param({"100000"})
+    public int elementCount;
+
+    @Param({"1", "64"})
+    public int maxBatchSize;
+
+    @Param({"1", "256"})
+    public int requestSize;
+
+    @Param({"0", "100"})
+    public int work;
+
+    List<Integer> elements;
+
+    ForkJoinPool executor;
+
+    @State(Scope.Benchmark)
+    public static class FullHeap {
+
+        FibonacciHeap<Integer> heap;
+
+        @Setup(Level.Invocation)
+        public void fillHeap(PublisherBenchmark benchmark) {
+            heap = FibonacciHeap.makeHeap();
+            benchmark.elements.forEach(heap::insert);
+        }
+    }
+
+    /**
+     * Publisher with a subscriber of unbounded demand that records the last
+     * element it received.
+     */
+    @State(Scope.Benchmark)
+    public static class Idle {
+
+        HeapPublisher<Integer> publisher;
+
+        volatile Integer received;
+
+        int index;
+
+        @Setup(Level.Trial)
+        public void subscribe(PublisherBenchmark benchmark) {
+            publisher = new HeapPublisher<>(FibonacciHeap.<Integer>makeHeap(), benchmark.executor, benchmark.maxBatchSize);
+            publisher.subscribe(new Flow.Subscriber<Integer>() {
+                @Override
+                public void onSubscribe(Flow.Subscription subscription) {
+                    subscription.request(Long.MAX_VALUE);
+                }
+
+                @Override
+                public void onNext(Integer item) {
+                    received = item;
+                }
+
+                @Override
+                public void onError(Throwable throwable) {
+                }
+
+                @Override
+                public void onComplete() {
+                }
+            });
+        }
+
+        @TearDown(Level.Trial)
+        public void close() {
+            publisher.close();
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void startExecutor() {
+        executor = new ForkJoinPool(2);
+    }
+
+    @TearDown(Level.Trial)
+    public void stopExecutor() {
+        executor.shutdownNow();
+    }
+
+    @Setup(Level.Iteration)
+    public void generateItems() {
+        elements = Benchmark.generateElements(elementCount);
+    }
+
+    @org.openjdk.jmh.annotations.Benchmark
+    public long drain(FullHeap state) throws InterruptedException {
+        HeapPublisher<Integer> publisher = new HeapPublisher<>(state.heap, executor, maxBatchSize);
+        CountingSubscriber subscriber = new CountingSubscriber(requestSize, work);
+
+        publisher.subscribe(subscriber);
+        publisher.close();
+        subscriber.done.await();
+        return subscriber.count;
+    }
+
+    @org.openjdk.jmh.annotations.Benchmark
+    public long drainWhileInserting() throws InterruptedException {
+        HeapPublisher<Integer> publisher = new HeapPublisher<>(FibonacciHeap.<Integer>makeHeap(), executor, maxBatchSize);
+        CountingSubscriber subscriber = new CountingSubscriber(requestSize, work);
+
+        publisher.subscribe(subscriber);
+        elements.forEach(publisher::insert);
+        publisher.close();
+        subscriber.done.await();
+        return subscriber.count;
+    }
+
+    @org.openjdk.jmh.annotations.Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Integer insertToDelivery(Idle state) {
+        state.index = (state.index + 1) % elementCount;
+        Integer element = elements.get(state.index);
+        state.received = null;
+        state.publisher.insert(element);
+        while (state.received == null) {
+            Thread.onSpinWait();
+        }
+        return state.received;
+    }
+
+    /**
+     * Subscriber requesting requestSize elements at a time and burning work
+     * CPU tokens per element.
+     */
+    static class CountingSubscriber implements Flow.Subscriber<Integer> {
+
+        final CountDownLatch done = new CountDownLatch(1);
+
+        final int requestSize;
+
+        final int work;
+
+        Flow.Subscription subscription;
+
+        long count;
+
+        int outstanding;
+
+        CountingSubscriber(int requestSize, int work) {
+            this.requestSize = requestSize;
+            this.work = work;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            outstanding = requestSize;
+            subscription.request(requestSize);
+        }
+
+        @Override
+        public void onNext(Integer item) {
+            Blackhole.consumeCPU(work);
+            count++;
+            if (--outstanding == 0) {
+                outstanding = requestSize;
+                subscription.request(requestSize);
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            done.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+            done.countDown();
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(PublisherBenchmark.class.getSimpleName())
+                .forks(1)
+                .build();
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,170 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import structures.FibonacciHeap;
+import structures.RadixHeap;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares RadixHeap with FibonacciHeap on monotone workloads: Dijkstra's
+ * algorithm on a random graph and the hold model, where every extracted
+ * key is reinserted with a random positive increment.
+ *
+ * <p>Heap elements encode a distance and a vertex as
+ * {@code distance << VERTEX_BITS | vertex}. The radix heap is keyed by the
+ * distance alone, which is what keeps its keys monotone.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(time = 1, timeUnit = TimeUnit.SECONDS)
+public class RadixHeapBenchmark {
+
+    private static final int VERTEX_BITS = 24;
+
+    private static final long VERTEX_MASK = (1L << VERTEX_BITS) - 1;
+
+    @Param({"100000", "1000000"})
+    public int vertexCount;
+
+    @Param({"8"})
+    public int edgesPerVertex;
+
+    int[] offsets;
+
+    int[] targets;
+
+    int[] weights;
+
+    long[] holdIncrements;
+
+    @Setup(Level.Trial)
+    public void generateGraph() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int edgeCount = vertexCount * edgesPerVertex;
+
+        offsets = new int[vertexCount + 1];
+        targets = new int[edgeCount];
+        weights = new int[edgeCount];
+        for (int v = 0; v < vertexCount; v++) {
+            offsets[v + 1] = offsets[v] + edgesPerVertex;
+        }
+        for (int e = 0; e < edgeCount; e++) {
+            targets[e] = random.nextInt(vertexCount);
+            weights[e] = random.nextInt(1000) + 1;
+        }
+
+        holdIncrements = new long[vertexCount];
+        for (int i = 0; i < vertexCount; i++) {
+            holdIncrements[i] = random.nextInt(1 << 16) + 1;
+        }
+    }
+
+    @org.openjdk.jmh.annotations.Benchmark
+    public long[] dijkstraFibonacci() {
+        long[] distances = new long[vertexCount];
+        Arrays.fill(distances, Long.MAX_VALUE);
+        FibonacciHeap.Node<Long>[] nodes = new FibonacciHeap.Node[vertexCount];
+        FibonacciHeap<Long> heap = FibonacciHeap.makeHeap();
+
+        distances[0] = 0;
+        nodes[0] = heap.insert(0L);
+
+        while (!heap.isEmpty()) {
+            long entry = heap.deleteMin().getElement();
+            int v = (int) (entry & VERTEX_MASK);
+            nodes[v] = null;
+
+            for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+                int w = targets[e];
+                long distance = distances[v] + weights[e];
+                if (distance < distances[w]) {
+                    distances[w] = distance;
+                    long updated = distance << VERTEX_BITS | w;
+                    if (nodes[w] == null) {
+                        nodes[w] = heap.insert(updated);
+                    } else {
+                        heap.decreaseKey(nodes[w], updated);
+                    }
+                }
+            }
+        }
+        return distances;
+    }
+
+    @org.openjdk.jmh.annotations.Benchmark
+    public long[] dijkstraRadix() {
+        long[] distances = new long[vertexCount];
+        Arrays.fill(distances, Long.MAX_VALUE);
+        RadixHeap.Node<Long>[] nodes = new RadixHeap.Node[vertexCount];
+        RadixHeap<Long> heap = RadixHeap.makeHeap(x -> x >>> VERTEX_BITS);
+
+        distances[0] = 0;
+        nodes[0] = heap.insert(0L);
+
+        while (!heap.isEmpty()) {
+            long entry = heap.deleteMin().getElement();
+            int v = (int) (entry & VERTEX_MASK);
+            nodes[v] = null;
+
+            for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+                int w = targets[e];
+                long distance = distances[v] + weights[e];
+                if (distance < distances[w]) {
+                    distances[w] = distance;
+                    long updated = distance << VERTEX_BITS | w;
+                    if (nodes[w] == null) {
+                        nodes[w] = heap.insert(updated);
+                    } else {
+                        heap.decreaseKey(nodes[w], updated);
+                    }
+                }
+            }
+        }
+        return distances;
+    }
+
+    @org.openjdk.jmh.annotations.Benchmark
+    public long holdFibonacci() {
+        FibonacciHeap<Long> heap = FibonacciHeap.makeHeap();
+        for (int i = 0; i < vertexCount; i++) {
+            heap.insert(holdIncrements[i]);
+        }
+        long key = 0;
+        for (int i = 0; i < vertexCount; i++) {
+            key = heap.deleteMin().getElement();
+            heap.insert(key + holdIncrements[i]);
+        }
+        return key;
+    }
+
+    @org.openjdk.jmh.annotations.Benchmark
+    public long holdRadix() {
+        RadixHeap<Long> heap = RadixHeap.makeHeap();
+        for (int i = 0; i < vertexCount; i++) {
+            heap.insert(holdIncrements[i]);
+        }
+        long key = 0;
+        for (int i = 0; i < vertexCount; i++) {
+            key = heap.deleteMin().getElement();
+            heap.insert(key + holdIncrements[i]);
+        }
+        return key;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(RadixHeapBenchmark.class.getSimpleName())
+                .forks(1)
+                .build();
+        new Runner(opt).run();
+    }
+}
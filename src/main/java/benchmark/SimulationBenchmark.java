@@ -0,0 +1,128 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import structures.Simulation;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hold model for Simulation: the calendar holds pendingCount events, and
+ * every event schedules one new event after a random increment, so the
+ * number of pending events stays constant. Scores are per event.
+ *
+ * <p>Increments are exponential with mean 1000, or rounded up to whole
+ * numbers if granularity is 1, which makes batches of about
+ * pendingCount / 1000 events with equal times. The reschedule and cancel variants additionally move
+ * every new event earlier, or schedule and cancel a second event.</p>
+ *
+ * <p>A calendar entry takes about 80 bytes. For 100M pending events run with
+ * {@code -p pendingCount=100000000 -jvmArgs -Xmx16g}.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(time = 1, timeUnit = TimeUnit.SECONDS)
+public class SimulationBenchmark {
+
+    private static final int HOLDS = 1 << 20;
+
+    private static final double MEAN_INCREMENT = 1000;
+
+    private static final int VARIANT_HOLD = 0;
+
+    private static final int VARIANT_RESCHEDULE = 1;
+
+    private static final int VARIANT_CANCEL = 2;
+
+    @Param({"1000000", "10000000"})
+    public int pendingCount;
+
+    @Param({"0", "1"})
+    public int granularity;
+
+    Simulation simulation;
+
+    double[] increments;
+
+    int index;
+
+    int variant;
+
+    final Runnable hold = this::onEvent;
+
+    @Setup(Level.Trial)
+    public void fillCalendar() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        increments = new double[HOLDS];
+        for (int i = 0; i < HOLDS; i++) {
+            double increment = -Math.log(1 - random.nextDouble()) * MEAN_INCREMENT;
+            increments[i] = granularity == 1 ? Math.ceil(increment) : increment;
+        }
+
+        simulation = new Simulation();
+        for (int i = 0; i < pendingCount; i++) {
+            simulation.schedule(nextIncrement(), hold);
+        }
+    }
+
+    private double nextIncrement() {
+        index = (index + 1) & (HOLDS - 1);
+        return increments[index];
+    }
+
+    private void onEvent() {
+        double increment = nextIncrement();
+
+        if (variant == VARIANT_RESCHEDULE) {
+            Simulation.Event event = simulation.schedule(2 * increment, hold);
+            simulation.reschedule(event, simulation.now() + increment);
+        } else if (variant == VARIANT_CANCEL) {
+            simulation.schedule(increment, hold);
+            simulation.cancel(simulation.schedule(increment, hold));
+        } else {
+            simulation.schedule(increment, hold);
+        }
+    }
+
+    private long runHolds(int variant) {
+        this.variant = variant;
+        long target = simulation.getExecutedCount() + HOLDS;
+        while (simulation.getExecutedCount() < target) {
+            simulation.step();
+        }
+        return simulation.getExecutedCount();
+    }
+
+    @org.openjdk.jmh.annotations.Benchmark
+    @OperationsPerInvocation(HOLDS)
+    public long hold() {
+        return runHolds(VARIANT_HOLD);
+    }
+
+    @org.openjdk.jmh.annotations.Benchmark
+    @OperationsPerInvocation(HOLDS)
+    public long holdReschedule() {
+        return runHolds(VARIANT_RESCHEDULE);
+    }
+
+    @org.openjdk.jmh.annotations.Benchmark
+    @OperationsPerInvocation(HOLDS)
+    public long holdCancel() {
+        return runHolds(VARIANT_CANCEL);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(SimulationBenchmark.class.getSimpleName())
+                .forks(1)
+                .build();
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,92 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import structures.FibonacciHeap;
+import structures.SoftHeap;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the throughput of SoftHeap at different error rates with the
+ * exact FibonacciHeap: inserting all elements and then draining the heap,
+ * and a steady state of alternating inserts and deleteMins.
+ */
+@BenchmarkMode(Mode.Throughput)
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(time = 1, timeUnit = TimeUnit.SECONDS)
+public class SoftHeapBenchmark {
+
+    @Param({"100000", "1000000"})
+    public int elementCount;
+
+    @Param({"0.001", "0.01", "0.1", "0.3"})
+    public double errorRate;
+
+    List<Integer> elements;
+
+    @Setup(Level.Iteration)
+    public void generateItems() {
+        elements = Benchmark.generateElements(elementCount);
+    }
+
+    @org.openjdk.jmh.annotations.Benchmark
+    public long softHeapDrain() {
+        SoftHeap<Integer> heap = new SoftHeap<>(errorRate);
+        elements.forEach(heap::insert);
+        while (!heap.isEmpty()) {
+            heap.deleteMin();
+        }
+        return heap.getCorruptedCount();
+    }
+
+    @org.openjdk.jmh.annotations.Benchmark
+    public void fibonacciDrain() {
+        FibonacciHeap<Integer> heap = FibonacciHeap.makeHeap();
+        elements.forEach(heap::insert);
+        while (!heap.isEmpty()) {
+            heap.deleteMin();
+        }
+    }
+
+    @org.openjdk.jmh.annotations.Benchmark
+    public long softHeapSteadyState() {
+        SoftHeap<Integer> heap = new SoftHeap<>(errorRate);
+        int half = elementCount / 2;
+        for (int i = 0; i < half; i++) {
+            heap.insert(elements.get(i));
+        }
+        for (int i = half; i < elementCount; i++) {
+            heap.insert(elements.get(i));
+            heap.deleteMin();
+        }
+        return heap.getCorruptedCount();
+    }
+
+    @org.openjdk.jmh.annotations.Benchmark
+    public void fibonacciSteadyState() {
+        FibonacciHeap<Integer> heap = FibonacciHeap.makeHeap();
+        int half = elementCount / 2;
+        for (int i = 0; i < half; i++) {
+            heap.insert(elements.get(i));
+        }
+        for (int i = half; i < elementCount; i++) {
+            heap.insert(elements.get(i));
+            heap.deleteMin();
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(SoftHeapBenchmark.class.getSimpleName())
+                .forks(1)
+                .build();
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,61 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import structures.FibonacciHeap;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Measures aggregate scans over a consolidated heap with the parallel
+ * stream, the same stream run sequentially and the lazy sorted stream.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(time = 1, timeUnit = TimeUnit.SECONDS)
+public class StreamBenchmark {
+
+    @Param({"1000000", "10000000"})
+    public int elementCount;
+
+    FibonacciHeap<Integer> heap;
+
+    @Setup(Level.Trial)
+    public void fillHeap() {
+        heap = FibonacciHeap.makeHeap();
+        Benchmark.generateElements(elementCount).forEach(heap::insert);
+        // Consolidate the root list into trees.
+        heap.insert(Integer.MIN_VALUE);
+        heap.deleteMin();
+    }
+
+    @org.openjdk.jmh.annotations.Benchmark
+    public long parallelCount() {
+        return heap.stream().filter(x -> (x & 1) == 0).count();
+    }
+
+    @org.openjdk.jmh.annotations.Benchmark
+    public long sequentialCount() {
+        return heap.stream().sequential().filter(x -> (x & 1) == 0).count();
+    }
+
+    @org.openjdk.jmh.annotations.Benchmark
+    public List<Integer> sortedPrefix() {
+        return heap.sortedStream().limit(1000).collect(Collectors.toList());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(StreamBenchmark.class.getSimpleName())
+                .forks(1)
+                .build();
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,65 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import structures.TopKHeap;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Compares collecting the k smallest elements of a stream with the TopKHeap
+ * collector against sorting the stream and limiting it.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(time = 1, timeUnit = TimeUnit.SECONDS)
+public class TopKBenchmark {
+
+    @Param({"100000", "1000000"})
+    public int elementCount;
+
+    @Param({"10", "100", "10000"})
+    public int k;
+
+    List<Integer> elements;
+
+    @Setup(Level.Iteration)
+    public void generateItems() {
+        elements = Benchmark.generateElements(elementCount);
+    }
+
+    @org.openjdk.jmh.annotations.Benchmark
+    public List<Integer> topKCollector() {
+        return elements.stream().collect(TopKHeap.toTopK(k));
+    }
+
+    @org.openjdk.jmh.annotations.Benchmark
+    public List<Integer> topKCollectorParallel() {
+        return elements.parallelStream().collect(TopKHeap.toTopK(k));
+    }
+
+    @org.openjdk.jmh.annotations.Benchmark
+    public List<Integer> sortThenLimit() {
+        return elements.stream().sorted().limit(k).collect(Collectors.toList());
+    }
+
+    @org.openjdk.jmh.annotations.Benchmark
+    public List<Integer> sortThenLimitParallel() {
+        return elements.parallelStream().sorted().limit(k).collect(Collectors.toList());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(TopKBenchmark.class.getSimpleName())
+                .forks(1)
+                .build();
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,116 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import structures.FibonacciHeap;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a mixed workload of priority promotions and demotions applied
+ * with updateKey against the delete-plus-insert approach it replaces. The
+ * demoteMin benchmarks repeatedly demote the current minimum, which walks
+ * the root list, on a heap that is consolidated or still a plain root list.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(time = 1, timeUnit = TimeUnit.SECONDS)
+public class UpdateKeyBenchmark {
+
+    @Param({"10000", "100000"})
+    public int elementCount;
+
+    /**
+     * Percentage of updates that demote (increase) the key.
+     */
+    @Param({"10", "50", "90"})
+    public int increasePercent;
+
+    @Param({"true", "false"})
+    public boolean consolidated;
+
+    List<Integer> elements;
+
+    int[] targets;
+
+    int[] deltas;
+
+    FibonacciHeap<Integer> heap;
+
+    List<FibonacciHeap.Node<Integer>> nodes;
+
+    @Setup(Level.Iteration)
+    public void generateUpdates() {
+        elements = Benchmark.generateElements(elementCount);
+        targets = new int[elementCount];
+        deltas = new int[elementCount];
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < elementCount; i++) {
+            targets[i] = random.nextInt(elementCount);
+            int delta = random.nextInt(1 << 20) + 1;
+            deltas[i] = random.nextInt(100) < increasePercent ? delta : -delta;
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void fillHeap() {
+        heap = FibonacciHeap.makeHeap();
+        nodes = new ArrayList<>(elementCount);
+        elements.forEach(x -> nodes.add(heap.insert(x >> 2)));
+        if (consolidated) {
+            // Consolidate the root list into trees.
+            heap.insert(Integer.MIN_VALUE);
+            heap.deleteMin();
+        }
+    }
+
+    @org.openjdk.jmh.annotations.Benchmark
+    public void updateKey() {
+        for (int i = 0; i < elementCount; i++) {
+            FibonacciHeap.Node<Integer> node = nodes.get(targets[i]);
+            heap.updateKey(node, node.getElement() + deltas[i]);
+        }
+    }
+
+    @org.openjdk.jmh.annotations.Benchmark
+    public void deleteAndInsert() {
+        for (int i = 0; i < elementCount; i++) {
+            FibonacciHeap.Node<Integer> node = nodes.get(targets[i]);
+            heap.delete(node);
+            nodes.set(targets[i], heap.insert(node.getElement() + deltas[i]));
+        }
+    }
+
+    @org.openjdk.jmh.annotations.Benchmark
+    public void demoteMin() {
+        for (int i = 0; i < elementCount; i++) {
+            FibonacciHeap.Node<Integer> node = heap.minimum();
+            heap.updateKey(node, node.getElement() + Math.abs(deltas[i]));
+        }
+    }
+
+    @org.openjdk.jmh.annotations.Benchmark
+    public void demoteMinDeleteAndInsert() {
+        for (int i = 0; i < elementCount; i++) {
+            FibonacciHeap.Node<Integer> node = heap.deleteMin();
+            heap.insert(node.getElement() + Math.abs(deltas[i]));
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(UpdateKeyBenchmark.class.getSimpleName())
+                .forks(1)
+                .build();
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,457 @@
+package structures;
+
+import java.util.Comparator;
+
+/**
+ * A Fibonacci heap with a smaller node layout than FibonacciHeap. A node
+ * holds four references and one int instead of five references, an int and
+ * two booleans:
+ * <ul>
+ *     <li>the degree, the mark and a root flag are packed into one int;</li>
+ *     <li>there is no parent pointer. Child lists are not circular, and the
+ *     left pointer of a first child points to its parent, so the parent of
+ *     a node is found by walking left through its siblings.</li>
+ * </ul>
+ *
+ * <p>With compressed references a node takes 32 bytes instead of 40. The
+ * price is that finding a parent costs O(d) for a parent of degree d, which
+ * makes decreaseKey and delete O(log n) amortized instead of O(1).</p>
+ *
+ * @param <E> the type of the elements in the heap.
+ */
+public class CompactFibonacciHeap<E extends Comparable<E>> {
+
+    /**
+     * The min node in the heap.
+     */
+    private Node<E> min;
+
+    /**
+     * Size of the heap.
+     */
+    private int size;
+
+    /**
+     * Comparator used to compare elements.
+     */
+    private final Comparator<? super E> comparator;
+
+    /**
+     * Constructs a new CompactFibonacciHeap with the default comparator.
+     */
+    public CompactFibonacciHeap() {
+        comparator = Comparator.naturalOrder();
+    }
+
+    /**
+     * Constructs a new CompactFibonacciHeap with the given comparator.
+     *
+     * @param comparator the comparator to use.
+     */
+    public CompactFibonacciHeap(Comparator<E> comparator) {
+        this.comparator = comparator;
+    }
+
+    /**
+     * Creates a new heap.
+     *
+     * <p>Running time: O(1)</p>
+     *
+     * @param <E> the type of the elements in the heap.
+     * @return a new heap.
+     */
+    public static <E extends Comparable<E>> CompactFibonacciHeap<E> makeHeap() {
+        return new CompactFibonacciHeap<>();
+    }
+
+    /**
+     * Merges two heaps. The other heap is left empty.
+     *
+     * <p>Running time: O(1)</p>
+     *
+     * @param heap the heap to unite.
+     */
+    public void union(CompactFibonacciHeap<E> heap) {
+        if (heap == null || heap == this || heap.isEmpty())
+            return;
+
+        if (isEmpty()) {
+            min = heap.min;
+        } else {
+            min.right.left = heap.min.left;
+            heap.min.left.right = min.right;
+            min.right = heap.min;
+            heap.min.left = min;
+
+            if (comparator.compare(heap.min.element, min.element) < 0) {
+                min = heap.min;
+            }
+        }
+
+        size += heap.size;
+        heap.clear();
+    }
+
+    /**
+     * Clears the heap.
+     */
+    public void clear() {
+        min = null;
+        size = 0;
+    }
+
+    /**
+     * Returns heap size
+     *
+     * @return heap size
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks if the heap is empty.
+     *
+     * @return true if the heap is empty, false otherwise.
+     */
+    public boolean isEmpty() {
+        return min == null;
+    }
+
+    /**
+     * Inserts a new element into the heap.
+     *
+     * <p>Running time: O(1)</p>
+     *
+     * @param element the element to insert.
+     * @return the node of the inserted element.
+     */
+    public Node<E> insert(E element) {
+        Node<E> node = new Node<>(element);
+        if (isEmpty()) {
+            min = node;
+        } else {
+            addRoot(node);
+            if (comparator.compare(node.element, min.element) < 0)
+                min = node;
+        }
+
+        size++;
+        return node;
+    }
+
+    /**
+     * Returns minimum element in the heap.
+     *
+     * <p>Running time: O(1)</p>
+     *
+     * @return minimum element in the heap.
+     */
+    public Node<E> minimum() {
+        return min;
+    }
+
+    /**
+     * Removes and returns minimum element in the heap.
+     *
+     * <p>Running time: O(log n)</p>
+     *
+     * @return minimum element in the heap.
+     */
+    public Node<E> deleteMin() {
+        Node<E> extractNode = min;
+
+        if (extractNode != null) {
+            // every child of 'min' is moved into the root list
+            Node<E> childNode = extractNode.child;
+            while (childNode != null) {
+                Node<E> rightNode = childNode.right;
+                addRoot(childNode);
+                childNode.state = Node.ROOT | (childNode.state & ~Node.MARK);
+                childNode = rightNode;
+            }
+            extractNode.child = null;
+            extractNode.state = Node.ROOT;
+
+            // delete 'min' node
+            removeFromRootList(extractNode);
+
+            if (extractNode == extractNode.right) min = null;
+            else {
+                min = extractNode.right;
+                consolidate();
+            }
+
+            size--;
+        }
+
+        return extractNode;
+    }
+
+    /**
+     * Deletes a node from the heap given the reference to the node.
+     *
+     * <p>Running time: O(log n)</p>
+     *
+     * @param node node to remove from heap
+     * @return the removed node
+     */
+    public Node<E> delete(Node<E> node) {
+        if (!node.isRoot()) {
+            Node<E> parent = parentOf(node);
+            cut(node, parent);
+            cascadingCut(parent);
+        }
+        min = node;
+
+        return deleteMin();
+    }
+
+    /**
+     * Decreases the key value for a heap node.
+     *
+     * <p>Running time: O(log n) amortized, the parent is found by walking
+     * the siblings</p>
+     *
+     * @param node    the node to decrease the key of.
+     * @param element the new key value for node x.
+     */
+    public void decreaseKey(Node<E> node, E element) {
+        if (comparator.compare(node.element, element) < 0) {
+            throw new IllegalArgumentException(
+                    "decreaseKey() got larger key value");
+        }
+
+        node.element = element;
+
+        if (!node.isRoot()) {
+            Node<E> parent = parentOf(node);
+            if (comparator.compare(node.element, parent.element) < 0) {
+                cut(node, parent);
+                cascadingCut(parent);
+            }
+        }
+
+        if (comparator.compare(node.element, min.element) < 0) {
+            min = node;
+        }
+    }
+
+    /**
+     * Consolidates the heap.
+     */
+    private void consolidate() {
+        int arraySize = (int) (Math.floor(Math.log(size) * (1.0 / Math.log((1.0 + Math.sqrt(5.0)) / 2.0))) + 1);
+        Node<E>[] array = new Node[arraySize];
+
+        int roots = 0;
+        Node<E> node = min;
+        do {
+            roots++;
+            node = node.right;
+        } while (node != min);
+
+        while (roots > 0) {
+            int d = node.degree();
+            Node<E> next = node.right;
+
+            while (array[d] != null) {
+                Node<E> y = array[d];
+                if (comparator.compare(y.element, node.element) < 0) {
+                    Node<E> temp = y;
+                    y = node;
+                    node = temp;
+                }
+
+                link(y, node);
+
+                array[d] = null;
+                d++;
+            }
+
+            array[d] = node;
+            node = next;
+            roots--;
+        }
+
+        // rebuild the root list from the array
+        min = null;
+        for (Node<E> y : array) {
+            if (y == null) continue;
+
+            if (min == null) {
+                y.left = y;
+                y.right = y;
+                min = y;
+            } else {
+                addRoot(y);
+                if (comparator.compare(y.element, min.element) < 0) min = y;
+            }
+        }
+    }
+
+    /**
+     * Makes a root the first child of another root.
+     *
+     * @param child  the node to link to.
+     * @param parent the node to link from.
+     */
+    private void link(Node<E> child, Node<E> parent) {
+        removeFromRootList(child);
+
+        child.left = parent;
+        child.right = parent.child;
+        if (parent.child != null) parent.child.left = child;
+        parent.child = child;
+
+        child.state &= ~(Node.ROOT | Node.MARK);
+        parent.state += Node.DEGREE_ONE;
+    }
+
+    /**
+     * Performs a cascading cut operation.
+     *
+     * @param node node to perform cascading cut on
+     */
+    private void cascadingCut(Node<E> node) {
+        while (!node.isRoot()) {
+            if ((node.state & Node.MARK) == 0) {
+                node.state |= Node.MARK;
+                return;
+            }
+
+            Node<E> parent = parentOf(node);
+            cut(node, parent);
+            node = parent;
+        }
+    }
+
+    /**
+     * Cuts a node from its parent and moves it to the root list.
+     *
+     * @param child  node to cut from its parent
+     * @param parent node's parent
+     */
+    private void cut(Node<E> child, Node<E> parent) {
+        if (parent.child == child) {
+            parent.child = child.right;
+            if (child.right != null) child.right.left = parent;
+        } else {
+            child.left.right = child.right;
+            if (child.right != null) child.right.left = child.left;
+        }
+        parent.state -= Node.DEGREE_ONE;
+
+        addRoot(child);
+        child.state = Node.ROOT | (child.state & ~Node.MARK);
+    }
+
+    /**
+     * Returns the parent of a node that is not a root.
+     *
+     * <p>Running time: O(d) for a parent of degree d</p>
+     *
+     * @param node the node.
+     * @return the parent of the node.
+     */
+    private Node<E> parentOf(Node<E> node) {
+        while (node.left.child != node) {
+            node = node.left;
+        }
+        return node.left;
+    }
+
+    /**
+     * Inserts a node into the root list after min.
+     *
+     * @param node the node to insert.
+     */
+    private void addRoot(Node<E> node) {
+        node.left = min;
+        node.right = min.right;
+        min.right = node;
+        node.right.left = node;
+    }
+
+    /**
+     * Deletes a node from the root list.
+     *
+     * @param node the node to delete.
+     */
+    private void removeFromRootList(Node<E> node) {
+        node.left.right = node.right;
+        node.right.left = node.left;
+    }
+
+    /**
+     * A node of the compact Fibonacci heap.
+     */
+    public static class Node<E> {
+        /**
+         * Set if the node has lost a child since it was linked to its parent.
+         */
+        private static final int MARK = 1;
+        /**
+         * Set if the node is in the root list.
+         */
+        private static final int ROOT = 2;
+        /**
+         * The degree is stored above the flags.
+         */
+        private static final int DEGREE_ONE = 4;
+
+        /**
+         * Data stored in the node.
+         */
+        private E element;
+        /**
+         * First child node.
+         */
+        private Node<E> child;
+        /**
+         * Left sibling node, or the parent for a first child.
+         */
+        private Node<E> left;
+        /**
+         * Right sibling node, null for a last child.
+         */
+        private Node<E> right;
+        /**
+         * Degree, mark and root flag.
+         */
+        private int state;
+
+        public Node(E element) {
+            this.element = element;
+            this.left = this;
+            this.right = this;
+            this.state = ROOT;
+        }
+
+        private int degree() {
+            return state >>> 2;
+        }
+
+        private boolean isRoot() {
+            return (state & ROOT) != 0;
+        }
+
+        /**
+         * Returns the data stored in the node.
+         *
+         * @return the data stored in the node.
+         */
+        public E getElement() {
+            return element;
+        }
+
+        /**
+         * ToString override.
+         * @return String representation of the node.
+         */
+        @Override
+        public String toString() {
+            return element == null ? null : element.toString();
+        }
+    }
+}
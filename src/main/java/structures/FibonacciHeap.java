@@ -2,10 +2,27 @@ package structures;
 
 import utils.Logger;
 
+import java.io.*;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public class FibonacciHeap<E extends Comparable<E>> implements MergeableHeap<E> {
 
+    /**
+     * Upper bound for the degree of any node. The degree of a node in a heap of
+     * n nodes is at most log_phi(n), which stays below 46 for any int size.
+     */
+    private static final int MAX_DEGREE = 64;
+
+    /**
+     * Buffer size used by export when the output is not buffered.
+     */
+    private static final int EXPORT_BUFFER_SIZE = 1 << 16;
+
     /**
      * The min node in the heap.
      */
@@ -21,6 +38,51 @@ public class FibonacciHeap<E extends Comparable<E>> implements MergeableHeap<E>
      */
     private final Comparator<? super E> comparator;
 
+    /**
+     * Number of nodes in the root list.
+     */
+    private int rootCount;
+
+    /**
+     * Maximum number of root list nodes consolidated per operation, or 0 if
+     * the heap consolidates the whole root list on every deleteMin.
+     */
+    private int consolidationBudget;
+
+    /**
+     * Consolidated roots indexed by degree. Only used when the consolidation
+     * budget is set.
+     */
+    private Node<E>[] trees;
+
+    /**
+     * Number of non-null entries in trees.
+     */
+    private int settledCount;
+
+    /**
+     * Number of roots not in the trees table when the last incremental
+     * consolidation step ended. Roots beyond it were added since, and are
+     * consolidated by the next step on top of the budget.
+     */
+    private int pendingRoots;
+
+    /**
+     * Root list node where the next incremental consolidation step starts.
+     */
+    private Node<E> cursor;
+
+    /**
+     * Number of deleted nodes still linked into the heap.
+     */
+    private int tombstones;
+
+    /**
+     * Maximum fraction of deleted nodes in the heap before it is compacted,
+     * or 0 if nodes are removed on delete.
+     */
+    private double maxTombstoneRatio;
+
     /**
      * Constructs a new FibonacciHeap with the default comparator.
      */
@@ -62,16 +124,110 @@ public class FibonacciHeap<E extends Comparable<E>> implements MergeableHeap<E>
     }
 
     /**
-     * Merges two heaps.
+     * Builds a heap from the given elements in parallel. The array is split
+     * into ranges that are inserted into separate heaps by fork/join tasks,
+     * which are then melded. Runs in the calling fork/join pool, or in the
+     * common pool when called from outside of one.
      *
-     * <p>Running time: O(1)</p>
+     * <p>Running time: O(n / p + p) on p threads</p>
+     *
+     * @param elements the elements to insert.
+     * @param <E>      the type of the elements in the heap.
+     * @return a new heap holding the elements.
+     */
+    public static <E extends Comparable<E>> FibonacciHeap<E> buildParallel(E[] elements) {
+        return buildParallel(elements, Comparator.<E>naturalOrder());
+    }
+
+    /**
+     * Builds a heap with the given comparator from the given elements in
+     * parallel.
+     *
+     * <p>Running time: O(n / p + p) on p threads</p>
+     *
+     * @param elements   the elements to insert.
+     * @param comparator the comparator to use.
+     * @param <E>        the type of the elements in the heap.
+     * @return a new heap holding the elements.
+     */
+    public static <E extends Comparable<E>> FibonacciHeap<E> buildParallel(E[] elements, Comparator<E> comparator) {
+        return new BuildTask<>(elements, 0, elements.length, comparator).invoke();
+    }
+
+    /**
+     * Sets the maximum number of root list nodes consolidated per operation.
+     * With a positive budget every operation consolidates the roots it added,
+     * plus up to budget roots left over from earlier, instead of deleteMin
+     * linking the whole root list at once. A root list inherited when the
+     * budget is set is thus worked off over later operations, so it no
+     * longer causes a single long stall. A budget of 0 restores the default
+     * behaviour.
+     *
+     * @param budget the number of roots to consolidate per operation, or 0.
+     */
+    public void setConsolidationBudget(int budget) {
+        if (budget < 0) {
+            throw new IllegalArgumentException(
+                    "setConsolidationBudget() got negative budget");
+        }
+
+        consolidationBudget = budget;
+        trees = budget > 0 ? new Node[MAX_DEGREE] : null;
+        settledCount = 0;
+        pendingRoots = rootCount;
+        cursor = null;
+    }
+
+    /**
+     * Returns the maximum number of root list nodes consolidated per operation.
+     *
+     * @return the consolidation budget, or 0 if consolidation is not bounded.
+     */
+    public int getConsolidationBudget() {
+        return consolidationBudget;
+    }
+
+    /**
+     * Enables lazy deletion. Deleting a node other than the minimum then only
+     * marks it as deleted in O(1). Deleted nodes are skipped and physically
+     * removed when consolidation walks the root list they have reached. Once
+     * deleted nodes make up more than the given fraction of the nodes in the
+     * heap, all of them are removed at once. A ratio of 0 restores the
+     * default behaviour.
+     *
+     * @param ratio the maximum fraction of deleted nodes, in [0, 1).
+     */
+    public void setMaxTombstoneRatio(double ratio) {
+        if (ratio < 0 || ratio >= 1) {
+            throw new IllegalArgumentException(
+                    "setMaxTombstoneRatio() got ratio outside of [0, 1)");
+        }
+
+        maxTombstoneRatio = ratio;
+    }
+
+    /**
+     * Returns the maximum fraction of deleted nodes before the heap is compacted.
+     *
+     * @return the tombstone ratio, or 0 if deletion is not lazy.
+     */
+    public double getMaxTombstoneRatio() {
+        return maxTombstoneRatio;
+    }
+
+    /**
+     * Merges two heaps. The nodes of the other heap are moved into this one,
+     * the other heap is left empty.
+     *
+     * <p>Running time: O(1); O(r log n) for the r roots of the other heap
+     * with a consolidation budget</p>
      *
      * @param heap the heap to unite.
      */
     @Override
     public void union(FibonacciHeap<E> heap) {
         // If the other heap is empty, do nothing.
-        if (heap == null || heap.isEmpty())
+        if (heap == null || heap == this || heap.isEmpty())
             return;
 
         // If this heap is empty, make it the other heap.
@@ -91,7 +247,26 @@ public class FibonacciHeap<E extends Comparable<E>> implements MergeableHeap<E>
 
         // Update the size.
         size += heap.size();
+        rootCount += heap.rootCount;
+        tombstones += heap.tombstones;
 
+        // The nodes belong to this heap now.
+        heap.clear();
+
+        consolidateIncrementally();
+    }
+
+    /**
+     * Merges all given heaps into this one. The other heaps are left empty.
+     *
+     * <p>Running time: O(k) for k heaps</p>
+     *
+     * @param heaps the heaps to unite.
+     */
+    public void unionAll(Collection<? extends FibonacciHeap<E>> heaps) {
+        for (FibonacciHeap<E> heap : heaps) {
+            union(heap);
+        }
     }
 
     /**
@@ -101,6 +276,14 @@ public class FibonacciHeap<E extends Comparable<E>> implements MergeableHeap<E>
     public void clear() {
         min = null;
         size = 0;
+        rootCount = 0;
+        tombstones = 0;
+        pendingRoots = 0;
+        cursor = null;
+        if (trees != null) {
+            Arrays.fill(trees, null);
+            settledCount = 0;
+        }
     }
 
     /**
@@ -142,6 +325,8 @@ public class FibonacciHeap<E extends Comparable<E>> implements MergeableHeap<E>
         }
 
         size++;
+        rootCount++;
+        consolidateIncrementally();
         return insNode;
     }
 
@@ -161,6 +346,65 @@ public class FibonacciHeap<E extends Comparable<E>> implements MergeableHeap<E>
         return nodes;
     }
 
+    /**
+     * Returns a parallel stream of all elements in the heap in no particular
+     * order. The spliterator splits on root list and child list subtrees, so
+     * the heap is traversed without copying it. The heap must not be modified
+     * while the stream is consumed.
+     *
+     * <p>Running time: O(n)</p>
+     *
+     * @return a stream of the elements in the heap.
+     */
+    public Stream<E> stream() {
+        return StreamSupport.stream(new NodeSpliterator<>(min, rootCount, size), true);
+    }
+
+    /**
+     * Returns a stream of the elements in the heap in ascending order without
+     * removing them. The next element is found lazily among the children of
+     * the elements already returned. The heap must not be modified while the
+     * stream is consumed.
+     *
+     * <p>Running time: O(log k) per element for k returned elements, plus O(r)
+     * for r roots on the first element</p>
+     *
+     * @return a sorted stream of the elements in the heap.
+     */
+    public Stream<E> sortedStream() {
+        Spliterator<E> spliterator = new Spliterators.AbstractSpliterator<E>(
+                size, Spliterator.ORDERED | Spliterator.SIZED | Spliterator.NONNULL) {
+
+            private PriorityQueue<Node<E>> frontier;
+
+            @Override
+            public boolean tryAdvance(Consumer<? super E> action) {
+                if (frontier == null) {
+                    frontier = new PriorityQueue<>((x, y) -> comparator.compare(x.element, y.element));
+                    addSiblings(min, rootCount);
+                }
+
+                Node<E> node;
+                do {
+                    node = frontier.poll();
+                    if (node == null) return false;
+                    addSiblings(node.child, node.degree);
+                } while (node.deleted);
+
+                action.accept(node.element);
+                return true;
+            }
+
+            private void addSiblings(Node<E> first, int count) {
+                for (Node<E> node = first; count > 0; count--, node = node.right) {
+                    frontier.add(node);
+                }
+            }
+        };
+
+        return StreamSupport.stream(spliterator, false);
+    }
+
     /**
      * Returns minimum element in the heap.
      *
@@ -186,6 +430,11 @@ public class FibonacciHeap<E extends Comparable<E>> implements MergeableHeap<E>
         Node<E> extractNode = min;
 
         if (extractNode != null) {
+            if (trees != null && trees[extractNode.degree] == extractNode) {
+                trees[extractNode.degree] = null;
+                settledCount--;
+            }
+
             int childrenCount = extractNode.degree;
             Node<E> childNode = extractNode.child;
             Node<E> rightNode;
@@ -207,16 +456,32 @@ public class FibonacciHeap<E extends Comparable<E>> implements MergeableHeap<E>
                 childrenCount--;
             }
 
+            rootCount += extractNode.degree - 1;
+            if (cursor == extractNode) cursor = extractNode.right;
+
             // delete 'min' node
             removeLeftRightLinks(extractNode);
 
             // if link sends into itself, then no other nodes are left
-            if (extractNode == extractNode.right) min = null;
-            else {
+            if (extractNode == extractNode.right) {
+                min = null;
+                cursor = null;
+            } else if (trees != null) {
+                min = extractNode.right;
+                consolidateIncrementally();
+                findMin();
+            } else {
                 min = extractNode.right;
                 consolidate();
             }
 
+            // an unlinked node is recognized as removed
+            extractNode.left = null;
+            extractNode.right = null;
+            extractNode.child = null;
+            extractNode.degree = 0;
+            extractNode.mark = false;
+
             size--;
         }
 
@@ -224,16 +489,122 @@ public class FibonacciHeap<E extends Comparable<E>> implements MergeableHeap<E>
     }
 
     /**
-     * Deletes a node from the heap given the reference to the node.
-     * The trees in the heap will be consolidated, if necessary.
+     * Inserts a node removed by deleteMin back into the heap, so that
+     * handles to it stay valid.
+     *
+     * <p>Running time: O(1)</p>
+     *
+     * @param node the removed node.
+     */
+    void reinsert(Node<E> node) {
+        if (node.right != null || node.deleted) {
+            throw new IllegalArgumentException(
+                    "reinsert() got node that was not removed by deleteMin");
+        }
+
+        node.left = node;
+        node.right = node;
+        if (isEmpty()) {
+            min = node;
+        } else {
+            insert(min, node);
+            if (comparator.compare(node.element, min.element) < 0)
+                min = node;
+        }
+
+        size++;
+        rootCount++;
+        consolidateIncrementally();
+    }
+
+    /**
+     * Replaces the minimum element with the given one. This does the work of
+     * deleteMin followed by insert in a single consolidation pass, and reuses
+     * the minimum node instead of allocating a new one. The new element may
+     * be larger or smaller than the old one.
      *
      * <p>Running time: O(log n)</p>
      *
+     * @param element the element to put in place of the minimum.
+     * @return the new minimum node.
+     */
+    public Node<E> replaceMin(E element) {
+        Node<E> node = min;
+
+        if (node == null) {
+            throw new NoSuchElementException("replaceMin() got empty heap");
+        }
+
+        if (trees != null && trees[node.degree] == node) {
+            trees[node.degree] = null;
+            settledCount--;
+        }
+
+        // the children of the node move into the root list, the node stays
+        int childrenCount = node.degree;
+        Node<E> childNode = node.child;
+
+        while (childrenCount > 0) {
+            Node<E> rightNode = childNode.right;
+            removeLeftRightLinks(childNode);
+            insert(min, childNode);
+            childNode.parent = null;
+            childNode = rightNode;
+            childrenCount--;
+        }
+
+        rootCount += node.degree;
+        node.child = null;
+        node.degree = 0;
+        node.mark = false;
+        node.element = element;
+
+        if (trees != null) {
+            consolidateIncrementally();
+            findMin();
+        } else {
+            consolidate();
+        }
+
+        return min;
+    }
+
+    /**
+     * Deletes a node from the heap given the reference to the node.
+     * The trees in the heap will be consolidated, if necessary. With lazy
+     * deletion enabled, a node other than the minimum is only marked as
+     * deleted.
+     *
+     * <p>Running time: O(log n); O(1) amortized with lazy deletion</p>
+     *
      * @param node node to remove from heap
      * @return the element of the removed node
      */
     @Override
     public Node<E> delete(Node<E> node) {
+        if (node.isRemoved()) {
+            throw new IllegalArgumentException(
+                    "delete() got removed node");
+        }
+
+        if (maxTombstoneRatio > 0 && node != min) {
+            node.deleted = true;
+            size--;
+            tombstones++;
+
+            // a deleted root must not be linked by incremental consolidation
+            if (trees != null && node.parent == null && trees[node.degree] == node) {
+                trees[node.degree] = null;
+                settledCount--;
+            }
+
+            if (tombstones > maxTombstoneRatio * (size + tombstones)) {
+                compact();
+            }
+
+            consolidateIncrementally();
+            return node;
+        }
 
         Node<E> parent = node.parent;
 
@@ -257,6 +628,10 @@ public class FibonacciHeap<E extends Comparable<E>> implements MergeableHeap<E>
      */
     @Override
     public void decreaseKey(Node<E> node, E element) {
+        if (node.isRemoved()) {
+            throw new IllegalArgumentException(
+                    "decreaseKey() got removed node");
+        }
         if (comparator.compare(node.element, element) < 0) {
             throw new IllegalArgumentException(
                     "decreaseKey() got larger key value");
@@ -275,13 +650,97 @@ public class FibonacciHeap<E extends Comparable<E>> implements MergeableHeap<E>
         if (comparator.compare(node.element, min.element) < 0) {
             min = node;
         }
+
+        consolidateIncrementally();
+    }
+
+    /**
+     * Increases the key value for a heap node. Children whose keys become
+     * smaller than the new key are cut to the root list. The node itself is
+     * then cut from its parent, since it may have lost more than one child.
+     * The node stays in the heap, so its handle remains valid. If the node
+     * was the minimum or lost children, the root list is consolidated, so
+     * the roots walked to find the new minimum are linked into trees.
+     *
+     * <p>Running time: O(d) for a node of degree d, plus O(log n) amortized
+     * if the node was the minimum or lost children</p>
+     *
+     * @param node    the node to increase the key of.
+     * @param element the new key value for node x.
+     */
+    public void increaseKey(Node<E> node, E element) {
+        if (node.isRemoved()) {
+            throw new IllegalArgumentException(
+                    "increaseKey() got removed node");
+        }
+        if (comparator.compare(node.element, element) > 0) {
+            throw new IllegalArgumentException(
+                    "increaseKey() got smaller key value");
+        }
+
+        node.element = element;
+
+        // cut children that would violate the heap order
+        int childrenCount = node.degree;
+        Node<E> childNode = node.child;
+        boolean lostChild = false;
+
+        while (childrenCount > 0) {
+            Node<E> rightNode = childNode.right;
+            if (comparator.compare(childNode.element, node.element) < 0) {
+                cut(childNode, node);
+                lostChild = true;
+            }
+            childNode = rightNode;
+            childrenCount--;
+        }
+
+        Node<E> parent = node.parent;
+        if (parent != null && lostChild) {
+            cut(node, parent);
+            cascadingCut(parent);
+        }
+
+        // the minimum may have moved to another root
+        boolean wasMin = node == min;
+
+        if (trees != null) {
+            consolidateIncrementally();
+            if (wasMin) findMin();
+        } else if (wasMin || lostChild) {
+            consolidate();
+        }
+    }
+
+    /**
+     * Changes the key value for a heap node, decreasing or increasing it as
+     * needed. The handle remains valid.
+     *
+     * @param node    the node to update the key of.
+     * @param element the new key value for node x.
+     */
+    public void updateKey(Node<E> node, E element) {
+        if (node.isRemoved()) {
+            throw new IllegalArgumentException(
+                    "updateKey() got removed node");
+        }
+
+        int cmp = comparator.compare(element, node.element);
+
+        if (cmp < 0) {
+            decreaseKey(node, element);
+        } else if (cmp > 0) {
+            increaseKey(node, element);
+        } else {
+            node.element = element;
+        }
     }
 
     /**
      * Consolidates the heap.
      */
     private void consolidate() {
-        int arraySize = (int) (Math.floor(Math.log(size) * (1.0 / Math.log((1.0 + Math.sqrt(5.0)) / 2.0))) + 1);
+        int arraySize = (int) (Math.floor(Math.log(size + tombstones) * (1.0 / Math.log((1.0 + Math.sqrt(5.0)) / 2.0))) + 1);
         Node<E>[] array = new Node[arraySize];
 
         // Find the number of root nodes
@@ -300,6 +759,13 @@ public class FibonacciHeap<E extends Comparable<E>> implements MergeableHeap<E>
 
         while (roots > 0) {
 
+            // Deleted roots are dropped, their children are walked next.
+            if (minNode.deleted) {
+                roots += minNode.degree - 1;
+                minNode = purge(minNode);
+                continue;
+            }
+
             // Get minNode's degree for later actions
             int d = minNode.degree;
             Node<E> next = minNode.right;
@@ -339,11 +805,13 @@ public class FibonacciHeap<E extends Comparable<E>> implements MergeableHeap<E>
         // Set min to null (effectively losing the root list) and
         // reconstruct the root list from the array entries in array[].
         min = null;
+        rootCount = 0;
         Node<E> y;
 
         for (Node<E> eNode : array) {
             y = eNode;
             if (y == null) continue;
+            rootCount++;
 
             // We've got a live one, add it to root list.
             if (min != null) {
@@ -359,6 +827,178 @@ public class FibonacciHeap<E extends Comparable<E>> implements MergeableHeap<E>
         }
     }
 
+    /**
+     * Consolidates the roots added since the previous call and at most
+     * consolidationBudget older ones, starting where the previous call
+     * stopped. Each root that is not yet in the trees table is linked with
+     * the roots of equal degree found there, so the consolidated part of the
+     * root list never holds more than one tree per degree. Paying for the
+     * added roots keeps the root list from growing when an operation adds
+     * more roots than the budget, so findMin walks O(log n) roots plus the
+     * ones left over from before the budget was set.
+     *
+     * <p>Running time: O((a + budget) * log n) for a added roots</p>
+     */
+    private void consolidateIncrementally() {
+        if (trees == null) return;
+
+        int budget = consolidationBudget;
+
+        while (rootCount > settledCount && min != null) {
+            // the added roots are paid for first, older ones from the budget
+            if (rootCount - settledCount <= pendingRoots) {
+                if (budget == 0) break;
+                budget--;
+            }
+
+            // a cursor that was linked below another root or purged from the
+            // root list restarts from min, which is always a live root
+            if (cursor == null || cursor.parent != null || cursor.deleted) cursor = min;
+
+            // consolidated roots are skipped for free, there are O(log n)
+            while (trees[cursor.degree] == cursor) cursor = cursor.right;
+
+            Node<E> node = cursor;
+            cursor = node.right;
+
+            if (node.deleted) {
+                purge(node);
+                continue;
+            }
+
+            int d = node.degree;
+            while (trees[d] != null) {
+                Node<E> y = trees[d];
+                trees[d] = null;
+                settledCount--;
+
+                if (comparator.compare(y.element, node.element) < 0) {
+                    Node<E> temp = y;
+                    y = node;
+                    node = temp;
+                }
+
+                // y leaves the root list, keep cursor and min on it.
+                if (cursor == y) cursor = y.right;
+                if (min == y) min = node;
+
+                link(y, node);
+                d++;
+            }
+
+            trees[d] = node;
+            settledCount++;
+        }
+
+        pendingRoots = rootCount - settledCount;
+    }
+
+    /**
+     * Points min to the smallest node of the root list, removing deleted roots
+     * on the way.
+     *
+     * <p>Running time: O(number of roots)</p>
+     */
+    private void findMin() {
+        Node<E> best = null;
+        Node<E> node = min;
+        int roots = rootCount;
+
+        while (roots > 0) {
+            if (node.deleted) {
+                roots += node.degree - 1;
+                node = purge(node);
+                continue;
+            }
+
+            if (best == null || comparator.compare(node.element, best.element) < 0) best = node;
+            node = node.right;
+            roots--;
+        }
+
+        min = best;
+    }
+
+    /**
+     * Removes a deleted root from the root list. Its children are inserted
+     * right after it, so a walk continuing from the returned node visits them.
+     *
+     * <p>Running time: O(d) for a node of degree d</p>
+     *
+     * @param node the deleted root to remove.
+     * @return the node that followed the removed one.
+     */
+    private Node<E> purge(Node<E> node) {
+        if (trees != null && trees[node.degree] == node) {
+            trees[node.degree] = null;
+            settledCount--;
+        }
+
+        int childrenCount = node.degree;
+        Node<E> childNode = node.child;
+
+        while (childrenCount > 0) {
+            Node<E> rightNode = childNode.right;
+            removeLeftRightLinks(childNode);
+            insert(node, childNode);
+            childNode.parent = null;
+            childNode = rightNode;
+            childrenCount--;
+        }
+
+        rootCount += node.degree - 1;
+        tombstones--;
+
+        // the last root leaves an empty root list
+        Node<E> next = node.right == node ? null : node.right;
+        if (cursor == node) cursor = next;
+        if (min == node) min = next;
+        removeLeftRightLinks(node);
+
+        node.child = null;
+        node.degree = 0;
+        return next;
+    }
+
+    /**
+     * Removes all deleted nodes from the heap. Deleted nodes inside trees are
+     * cut to the root list, where consolidation drops them.
+     *
+     * <p>Running time: O(n)</p>
+     */
+    private void compact() {
+        List<Node<E>> deleted = new ArrayList<>(tombstones);
+        Deque<Node<E>> stack = new ArrayDeque<>();
+
+        Node<E> root = min;
+        for (int i = 0; i < rootCount; i++, root = root.right) {
+            stack.push(root);
+        }
+
+        while (!stack.isEmpty()) {
+            Node<E> node = stack.pop();
+            if (node.deleted && node.parent != null) deleted.add(node);
+
+            Node<E> childNode = node.child;
+            for (int i = 0; i < node.degree; i++, childNode = childNode.right) {
+                stack.push(childNode);
+            }
+        }
+
+        for (Node<E> node : deleted) {
+            Node<E> parent = node.parent;
+            cut(node, parent);
+            cascadingCut(parent);
+        }
+
+        if (trees != null) {
+            consolidateIncrementally();
+            findMin();
+        } else {
+            consolidate();
+        }
+    }
+
     /**
      * Inserts node after the given node.
      *
@@ -398,6 +1038,7 @@ public class FibonacciHeap<E extends Comparable<E>> implements MergeableHeap<E>
 
         parent.degree++;
         child.mark = false;
+        rootCount--;
     }
 
     /**
@@ -435,6 +1076,12 @@ public class FibonacciHeap<E extends Comparable<E>> implements MergeableHeap<E>
      * @param parent node's parent
      */
     private void cut(Node<E> child, Node<E> parent) {
+        // a consolidated root leaves the trees table when its degree changes
+        if (trees != null && parent.parent == null && trees[parent.degree] == parent) {
+            trees[parent.degree] = null;
+            settledCount--;
+        }
+
         // remove child from child-list of parent and decrement degree[parent]
         removeLeftRightLinks(child);
         parent.degree--;
@@ -456,6 +1103,7 @@ public class FibonacciHeap<E extends Comparable<E>> implements MergeableHeap<E>
 
         // set mark[child] to false
         child.mark = false;
+        rootCount++;
     }
 
     /**
@@ -469,7 +1117,7 @@ public class FibonacciHeap<E extends Comparable<E>> implements MergeableHeap<E>
     }
 
     /**
-     * Displays the heap.
+     * Displays the heap. Prints one line per node, use export for large heaps.
      */
     public void display() {
         if (isEmpty()) {
@@ -491,7 +1139,8 @@ public class FibonacciHeap<E extends Comparable<E>> implements MergeableHeap<E>
         do {
             Logger.printDebug(prefix +
                     "-> ELEMENT: " +
-                    temp.element
+                    temp.element +
+                    (temp.deleted ? " (deleted)" : "")
             );
             k = temp.child;
             display(k, prefix + "   ");
@@ -499,6 +1148,361 @@ public class FibonacciHeap<E extends Comparable<E>> implements MergeableHeap<E>
         } while (temp != node);
     }
 
+    /**
+     * Writes the whole forest to the given writer.
+     *
+     * @param writer the writer, which is flushed but not closed.
+     * @param format the output format.
+     * @throws IOException if writing fails.
+     */
+    public void export(Writer writer, ExportFormat format) throws IOException {
+        export(writer, format, Integer.MAX_VALUE, 1);
+    }
+
+    /**
+     * Writes the forest to the given stream as UTF-8.
+     *
+     * @param out        the stream, which is flushed but not closed.
+     * @param format     the output format.
+     * @param maxDepth   the depth of the deepest exported nodes, roots being
+     *                   at depth 0.
+     * @param treeStride export one root tree out of treeStride.
+     * @throws IOException if writing fails.
+     */
+    public void export(OutputStream out, ExportFormat format, int maxDepth, int treeStride) throws IOException {
+        export(new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), EXPORT_BUFFER_SIZE),
+                format, maxDepth, treeStride);
+    }
+
+    /**
+     * Writes the forest to the given writer. Each exported node has its
+     * key, degree, mark, deletion flag and parent. Nodes deeper than
+     * maxDepth and root trees skipped by the stride are left out, while the
+     * heap size, tombstone and root counts always cover the whole heap.
+     * The trees are walked with an explicit stack, and the output is
+     * buffered unless the writer already is a BufferedWriter.
+     *
+     * <p>Running time: O(m + r) for m exported nodes and r roots</p>
+     *
+     * @param writer     the writer, which is flushed but not closed.
+     * @param format     the output format.
+     * @param maxDepth   the depth of the deepest exported nodes, roots being
+     *                   at depth 0.
+     * @param treeStride export one root tree out of treeStride.
+     * @throws IOException if writing fails.
+     */
+    public void export(Writer writer, ExportFormat format, int maxDepth, int treeStride) throws IOException {
+        if (maxDepth < 0) {
+            throw new IllegalArgumentException(
+                    "export() got negative depth");
+        }
+        if (treeStride < 1) {
+            throw new IllegalArgumentException(
+                    "export() got non-positive tree stride");
+        }
+
+        Writer out = writer instanceof BufferedWriter ? writer : new BufferedWriter(writer, EXPORT_BUFFER_SIZE);
+        boolean json = format == ExportFormat.JSON;
+
+        if (json) {
+            out.write("{\"size\":" + size + ",\"tombstones\":" + tombstones + ",\"minimum\":");
+            out.write(min == null ? "null" : "\"" + escape(min.element) + "\"");
+            out.write(",\"nodes\":[\n");
+        } else {
+            out.write("digraph heap {\n  label=\"size " + size + ", tombstones " + tombstones + "\";\n");
+            out.write("  node [shape=box];\n");
+        }
+
+        // pending nodes with the id of their parent and their depth
+        Node<E>[] stack = new Node[MAX_DEGREE];
+        int[] parents = new int[MAX_DEGREE];
+        int[] depths = new int[MAX_DEGREE];
+        int top = 0;
+        int nextId = 0;
+        int roots = 0;
+
+        Node<E> root = min;
+        if (root != null) {
+            do {
+                if (roots++ % treeStride == 0) {
+                    stack[0] = root;
+                    parents[0] = -1;
+                    depths[0] = 0;
+                    top = 1;
+                }
+
+                while (top > 0) {
+                    top--;
+                    Node<E> node = stack[top];
+                    int parent = parents[top];
+                    int depth = depths[top];
+                    int id = nextId++;
+
+                    if (json) exportJson(out, node, id, parent);
+                    else exportDot(out, node, id, parent);
+
+                    if (depth == maxDepth) continue;
+
+                    if (top + node.degree > stack.length) {
+                        int length = Math.max(2 * stack.length, top + node.degree);
+                        stack = Arrays.copyOf(stack, length);
+                        parents = Arrays.copyOf(parents, length);
+                        depths = Arrays.copyOf(depths, length);
+                    }
+
+                    Node<E> child = node.child;
+                    for (int i = 0; i < node.degree; i++) {
+                        stack[top] = child;
+                        parents[top] = id;
+                        depths[top] = depth + 1;
+                        top++;
+                        child = child.right;
+                    }
+                }
+
+                root = root.right;
+            } while (root != min);
+        }
+
+        if (json) {
+            out.write("\n],\"roots\":" + roots + ",\"exported\":" + nextId + "}\n");
+        } else {
+            out.write("  // roots " + roots + ", exported " + nextId + "\n}\n");
+        }
+        out.flush();
+    }
+
+    /**
+     * Writes a node as an element of the JSON nodes array.
+     */
+    private void exportJson(Writer out, Node<E> node, int id, int parent) throws IOException {
+        if (id > 0) out.write(",\n");
+        out.write("{\"id\":" + id + ",\"key\":\"");
+        out.write(escape(node.element));
+        out.write("\",\"degree\":" + node.degree + ",\"mark\":" + node.mark + ",\"deleted\":" + node.deleted
+                + ",\"parent\":" + (parent < 0 ? "null" : parent) + "}");
+    }
+
+    /**
+     * Writes a node and the link from its parent as DOT statements. Marked
+     * nodes are filled and deleted ones dashed.
+     */
+    private void exportDot(Writer out, Node<E> node, int id, int parent) throws IOException {
+        out.write("  n" + id + " [label=\"");
+        out.write(escape(node.element));
+        out.write("\\nd=" + node.degree + "\"");
+        if (node.mark || node.deleted) {
+            out.write(", style=\"" + (node.mark ? "filled" : "") + (node.mark && node.deleted ? "," : "")
+                    + (node.deleted ? "dashed" : "") + "\"");
+        }
+        out.write("];\n");
+        if (parent >= 0) out.write("  n" + parent + " -> n" + id + ";\n");
+    }
+
+    /**
+     * Escapes an element for a quoted DOT or JSON string.
+     */
+    private static String escape(Object element) {
+        String text = String.valueOf(element);
+        StringBuilder builder = null;
+
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            String replacement = c == '"' ? "\\\"" : c == '\\' ? "\\\\" : c == '\n' ? "\\n"
+                    : c < 0x20 ? String.format("\\u%04x", (int) c) : null;
+
+            if (replacement != null && builder == null) {
+                builder = new StringBuilder(text.length() + 8).append(text, 0, i);
+            }
+            if (builder != null) {
+                if (replacement != null) builder.append(replacement);
+                else builder.append(c);
+            }
+        }
+
+        return builder == null ? text : builder.toString();
+    }
+
+    /**
+     * Spliterator over the elements of a part of the heap forest. The part is
+     * kept as a stack of sibling list segments, the bottom one being the
+     * highest in the forest. Splitting hands off the bottom segment, half of
+     * it or the children of its only node.
+     */
+    private static final class NodeSpliterator<E> implements Spliterator<E> {
+
+        /**
+         * Maximum number of siblings walked to split a segment, so a split of
+         * an unconsolidated root list does not walk half of the heap.
+         */
+        private static final int MAX_SPLIT_WALK = 1 << 10;
+
+        /**
+         * Remaining sibling segments, the top one is traversed first.
+         */
+        private final Deque<Segment<E>> segments = new ArrayDeque<>();
+
+        /**
+         * Estimated number of remaining elements.
+         */
+        private long estimate;
+
+        private NodeSpliterator(Node<E> first, int count, long estimate) {
+            if (first != null && count > 0) segments.push(new Segment<>(first, count));
+            this.estimate = estimate;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super E> action) {
+            Node<E> node;
+
+            // deleted nodes are skipped, their children are not
+            do {
+                Segment<E> segment = segments.peek();
+                if (segment == null) return false;
+
+                node = segment.first;
+                boolean childrenTaken = segment.childrenTaken;
+
+                segment.first = node.right;
+                segment.childrenTaken = false;
+                if (--segment.count == 0) segments.pop();
+
+                if (!childrenTaken && node.child != null) {
+                    segments.push(new Segment<>(node.child, node.degree));
+                }
+            } while (node.deleted);
+
+            if (estimate > 0) estimate--;
+            action.accept(node.element);
+            return true;
+        }
+
+        @Override
+        public Spliterator<E> trySplit() {
+            Segment<E> bottom = segments.peekLast();
+            if (bottom == null) return null;
+
+            NodeSpliterator<E> prefix;
+            long prefixEstimate = estimate / 2;
+
+            if (segments.size() > 1) {
+                // Hand off the whole bottom segment.
+                segments.pollLast();
+                prefix = new NodeSpliterator<>(null, 0, 0);
+                prefix.segments.push(bottom);
+            } else if (bottom.count > 1) {
+                // Hand off the first half of the segment, or a bounded prefix
+                // of a long one.
+                int half = Math.min(bottom.count / 2, MAX_SPLIT_WALK);
+                if (half < bottom.count / 2) prefixEstimate = estimate * half / bottom.count;
+
+                Segment<E> head = new Segment<>(bottom.first, half);
+                head.childrenTaken = bottom.childrenTaken;
+
+                for (int i = 0; i < half; i++) bottom.first = bottom.first.right;
+                bottom.count -= half;
+                bottom.childrenTaken = false;
+
+                prefix = new NodeSpliterator<>(null, 0, 0);
+                prefix.segments.push(head);
+            } else if (!bottom.childrenTaken && bottom.first.child != null) {
+                // Hand off the children of the only node left.
+                bottom.childrenTaken = true;
+                prefix = new NodeSpliterator<>(bottom.first.child, bottom.first.degree, 0);
+            } else {
+                return null;
+            }
+
+            prefix.estimate = prefixEstimate;
+            estimate -= prefix.estimate;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return estimate;
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.NONNULL;
+        }
+
+        /**
+         * A run of count siblings starting at first.
+         */
+        private static final class Segment<E> {
+            private Node<E> first;
+            private int count;
+            /**
+             * True if the children of first are traversed by another spliterator.
+             */
+            private boolean childrenTaken;
+
+            private Segment(Node<E> first, int count) {
+                this.first = first;
+                this.count = count;
+            }
+        }
+    }
+
+    /**
+     * Fork/join task inserting a range of an array into a new heap. Ranges
+     * longer than THRESHOLD are split in two and the resulting heaps melded.
+     */
+    private static final class BuildTask<E extends Comparable<E>> extends RecursiveTask<FibonacciHeap<E>> {
+
+        /**
+         * Number of elements inserted sequentially by a single task.
+         */
+        private static final int THRESHOLD = 1 << 14;
+
+        private final E[] elements;
+        private final int from;
+        private final int to;
+        private final Comparator<E> comparator;
+
+        private BuildTask(E[] elements, int from, int to, Comparator<E> comparator) {
+            this.elements = elements;
+            this.from = from;
+            this.to = to;
+            this.comparator = comparator;
+        }
+
+        @Override
+        protected FibonacciHeap<E> compute() {
+            if (to - from <= THRESHOLD) {
+                FibonacciHeap<E> heap = new FibonacciHeap<>(comparator);
+                for (int i = from; i < to; i++) {
+                    heap.insert(elements[i]);
+                }
+                return heap;
+            }
+
+            int middle = (from + to) >>> 1;
+            BuildTask<E> right = new BuildTask<>(elements, middle, to, comparator);
+            right.fork();
+
+            FibonacciHeap<E> heap = new BuildTask<>(elements, from, middle, comparator).compute();
+            heap.union(right.join());
+            return heap;
+        }
+    }
+
+    /**
+     * Output formats of export.
+     */
+    public enum ExportFormat {
+        /**
+         * Graphviz digraph with an edge from each parent to its children.
+         */
+        DOT,
+        /**
+         * JSON object holding the heap counts and a flat array of nodes.
+         */
+        JSON
+    }
 
     /**
      * A node in the Fibonacci heap.
@@ -536,6 +1540,11 @@ public class FibonacciHeap<E extends Comparable<E>> implements MergeableHeap<E>
          * added to its parent.
          */
         private boolean mark;
+        /**
+         * True if this node has been lazily deleted but is still linked into
+         * the heap.
+         */
+        private boolean deleted;
 
         public Node(E element) {
             this.element = element;
@@ -556,6 +1565,16 @@ public class FibonacciHeap<E extends Comparable<E>> implements MergeableHeap<E>
             return element;
         }
 
+        /**
+         * Checks if the node has been removed from its heap, by deleteMin or
+         * by delete.
+         *
+         * @return true if the node is no longer in the heap.
+         */
+        public boolean isRemoved() {
+            return right == null || deleted;
+        }
+
         /**
          * ToString override.
          * @return String representation of the node.
@@ -0,0 +1,329 @@
+package structures;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A Flow.Publisher emitting the elements of a FibonacciHeap in ascending
+ * order, as fast as its subscribers request them. Every element is emitted
+ * to one subscriber only, so several subscribers share the work like
+ * consumers of a queue.
+ *
+ * <p>Elements may be inserted and decreased concurrently with the
+ * subscriptions through the publisher, which guards the heap with a lock.
+ * Each wakeup of a subscription extracts up to maxBatchSize minima under a
+ * single lock acquisition and emits them outside of it. An element inserted
+ * while a batch is being emitted is therefore emitted after that batch even
+ * if it is smaller. Elements of a batch that is not emitted, because its
+ * subscription was cancelled, are put back with their nodes.</p>
+ *
+ * <p>After close(), subscribers are completed once the heap is empty and no
+ * subscription holds a batch that may still be put back.</p>
+ *
+ * @param <E> the type of the elements in the heap.
+ */
+public class HeapPublisher<E extends Comparable<E>> implements Flow.Publisher<E>, AutoCloseable {
+
+    /**
+     * Default number of minima extracted per wakeup.
+     */
+    private static final int DEFAULT_BATCH_SIZE = 64;
+
+    /**
+     * Heap holding the elements not emitted yet, guarded by itself.
+     */
+    private final FibonacciHeap<E> heap;
+
+    /**
+     * Executor running the subscription drain loops.
+     */
+    private final Executor executor;
+
+    /**
+     * Maximum number of minima extracted per lock acquisition.
+     */
+    private final int maxBatchSize;
+
+    /**
+     * Active subscriptions.
+     */
+    private final List<HeapSubscription> subscriptions = new CopyOnWriteArrayList<>();
+
+    /**
+     * True once no more elements will be inserted.
+     */
+    private volatile boolean closed;
+
+    /**
+     * Number of extracted elements not emitted yet, guarded by the heap.
+     */
+    private int inFlight;
+
+    /**
+     * Constructs a new HeapPublisher over a new heap, draining on the common
+     * fork/join pool.
+     */
+    public HeapPublisher() {
+        this(FibonacciHeap.makeHeap(), ForkJoinPool.commonPool(), DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Constructs a new HeapPublisher over the given heap. The heap must only
+     * be accessed through the publisher from now on.
+     *
+     * @param heap         the heap to publish.
+     * @param executor     the executor running the subscriptions.
+     * @param maxBatchSize the maximum number of minima extracted per wakeup.
+     */
+    public HeapPublisher(FibonacciHeap<E> heap, Executor executor, int maxBatchSize) {
+        if (maxBatchSize <= 0) {
+            throw new IllegalArgumentException(
+                    "HeapPublisher() got non-positive batch size");
+        }
+
+        this.heap = heap;
+        this.executor = executor;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    /**
+     * Inserts a new element and wakes up the subscriptions with demand.
+     *
+     * @param element the element to insert.
+     * @return the node of the inserted element.
+     */
+    public FibonacciHeap.Node<E> insert(E element) {
+        FibonacciHeap.Node<E> node;
+        synchronized (heap) {
+            // checked under the lock of the completion check, so an element
+            // is either rejected or inserted before subscribers complete
+            if (closed) {
+                throw new IllegalStateException("insert() got called after close()");
+            }
+
+            node = heap.insert(element);
+        }
+
+        signalAll();
+        return node;
+    }
+
+    /**
+     * Decreases the key value for a node that has not been taken from the
+     * heap yet. A node taken for a batch counts as taken, even before it is
+     * emitted.
+     *
+     * @param node    the node to decrease the key of.
+     * @param element the new key value for node x.
+     * @return false if the node was already taken, true otherwise.
+     */
+    public boolean decreaseKey(FibonacciHeap.Node<E> node, E element) {
+        synchronized (heap) {
+            if (node.isRemoved()) return false;
+            heap.decreaseKey(node, element);
+            return true;
+        }
+    }
+
+    /**
+     * Returns the number of elements not emitted yet.
+     *
+     * @return heap size
+     */
+    public int size() {
+        synchronized (heap) {
+            return heap.size() + inFlight;
+        }
+    }
+
+    /**
+     * Stops accepting inserts. Subscribers are completed once the remaining
+     * elements have been emitted.
+     */
+    @Override
+    public void close() {
+        synchronized (heap) {
+            closed = true;
+        }
+        signalAll();
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super E> subscriber) {
+        if (subscriber == null) throw new NullPointerException();
+
+        HeapSubscription subscription = new HeapSubscription(subscriber);
+        subscriptions.add(subscription);
+        subscription.signal();
+    }
+
+    private void signalAll() {
+        for (HeapSubscription subscription : subscriptions) {
+            if (subscription.requested.get() > 0 || closed) subscription.signal();
+        }
+    }
+
+    /**
+     * Subscription draining the heap for one subscriber. All signals to the
+     * subscriber are made by the drain loop, which runs on the executor for
+     * at most one thread at a time.
+     */
+    private final class HeapSubscription implements Flow.Subscription, Runnable {
+
+        private final Flow.Subscriber<? super E> subscriber;
+
+        /**
+         * Outstanding demand.
+         */
+        private final AtomicLong requested = new AtomicLong();
+
+        /**
+         * Number of signals not handled by the drain loop yet.
+         */
+        private final AtomicInteger wip = new AtomicInteger();
+
+        /**
+         * Extracted nodes waiting to be emitted.
+         */
+        private final FibonacciHeap.Node<E>[] batch = new FibonacciHeap.Node[maxBatchSize];
+
+        private boolean subscribed;
+
+        private volatile boolean cancelled;
+
+        /**
+         * Error to signal instead of emitting, set by an invalid request.
+         */
+        private volatile Throwable error;
+
+        private HeapSubscription(Flow.Subscriber<? super E> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                error = new IllegalArgumentException("request() got non-positive demand");
+            } else {
+                requested.getAndAccumulate(n, (current, added) -> {
+                    long sum = current + added;
+                    return sum < 0 ? Long.MAX_VALUE : sum;
+                });
+            }
+            signal();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            subscriptions.remove(this);
+        }
+
+        private void signal() {
+            if (wip.getAndIncrement() == 0) {
+                executor.execute(this);
+            }
+        }
+
+        @Override
+        public void run() {
+            int missed = 1;
+
+            do {
+                if (!subscribed) {
+                    subscribed = true;
+                    subscriber.onSubscribe(this);
+                }
+
+                if (!cancelled && error != null) {
+                    cancel();
+                    subscriber.onError(error);
+                }
+
+                if (!cancelled) {
+                    drain();
+                }
+
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        /**
+         * Emits batches of minima while there is demand and completes the
+         * subscriber once the publisher is closed and the heap empty.
+         */
+        private void drain() {
+            long demand = requested.get();
+            long emitted = 0;
+
+            while (emitted < demand && !cancelled) {
+                int count;
+                int limit = (int) Math.min(demand - emitted, maxBatchSize);
+
+                synchronized (heap) {
+                    for (count = 0; count < limit && !heap.isEmpty(); count++) {
+                        batch[count] = heap.deleteMin();
+                    }
+                    inFlight += count;
+                }
+
+                if (count == 0) break;
+
+                int i = 0;
+                try {
+                    for (; i < count && !cancelled; i++) {
+                        subscriber.onNext(batch[i].getElement());
+                        batch[i] = null;
+                    }
+                } catch (Throwable t) {
+                    batch[i++] = null;
+                    cancel();
+                    subscriber.onError(t);
+                }
+
+                emitted += i;
+                release(i, count);
+                if (i < count) return;
+            }
+
+            if (emitted > 0 && demand != Long.MAX_VALUE) {
+                requested.addAndGet(-emitted);
+            }
+
+            if (!cancelled && closed) {
+                boolean done;
+                synchronized (heap) {
+                    done = heap.isEmpty() && inFlight == 0;
+                }
+                if (done) {
+                    cancel();
+                    subscriber.onComplete();
+                }
+            }
+        }
+
+        /**
+         * Ends a batch of count extracted nodes, of which the first emitted
+         * ones were emitted. The others are put back into the heap. The
+         * other subscriptions are woken up if nodes were put back, or if
+         * they may be waiting for this batch to complete.
+         */
+        private void release(int emitted, int count) {
+            boolean wake;
+            synchronized (heap) {
+                for (int i = emitted; i < count; i++) {
+                    heap.reinsert(batch[i]);
+                    batch[i] = null;
+                }
+                inFlight -= count;
+                wake = emitted < count || (closed && inFlight == 0 && heap.isEmpty());
+            }
+            if (wake) signalAll();
+        }
+    }
+}
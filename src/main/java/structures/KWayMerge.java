@@ -0,0 +1,322 @@
+package structures;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * Merges sorted runs into a single sorted iterator. The heap holds one
+ * cursor per run, keyed by the current head of the run. Taking an element
+ * advances its run and puts the cursor back in place with replaceMin, so a
+ * merge step is a single consolidation pass without allocation. Equal
+ * elements are taken from runs in the order the runs were given.
+ *
+ * <p>Runs may be iterators, or files of sorted big-endian longs or ints
+ * (as written by DataOutputStream), which are memory-mapped. Each mapped
+ * file counts against the process limit of memory mappings.</p>
+ *
+ * <p>Running time: O(log k) amortized per element for k runs</p>
+ */
+public final class KWayMerge {
+
+    /**
+     * Largest mapping of a file, a multiple of the size of a long.
+     */
+    private static final int MAX_WINDOW = Integer.MAX_VALUE & ~(Long.BYTES - 1);
+
+    private KWayMerge() {
+    }
+
+    /**
+     * Merges sorted iterators in natural order.
+     *
+     * @param runs the iterators, each sorted in natural order.
+     * @param <E>  the type of the elements.
+     * @return an iterator over the elements of all runs, in order.
+     */
+    public static <E extends Comparable<E>> Iterator<E> merge(List<? extends Iterator<? extends E>> runs) {
+        return merge(runs, Comparator.<E>naturalOrder());
+    }
+
+    /**
+     * Merges sorted iterators in the order of the given comparator.
+     *
+     * @param runs       the iterators, each sorted by the comparator.
+     * @param comparator the comparator the runs are sorted by.
+     * @param <E>        the type of the elements.
+     * @return an iterator over the elements of all runs, in order.
+     */
+    public static <E> Iterator<E> merge(List<? extends Iterator<? extends E>> runs, Comparator<? super E> comparator) {
+        List<ObjectRun<E>> cursors = new ArrayList<>(runs.size());
+        for (Iterator<? extends E> run : runs) {
+            cursors.add(new ObjectRun<>(cursors.size(), run, comparator));
+        }
+
+        Merger<ObjectRun<E>> merger = new Merger<>(cursors);
+
+        return new Iterator<E>() {
+            @Override
+            public boolean hasNext() {
+                return merger.hasNext();
+            }
+
+            @Override
+            public E next() {
+                ObjectRun<E> run = merger.head();
+                E element = run.head;
+                merger.advance(run);
+                return element;
+            }
+        };
+    }
+
+    /**
+     * Merges files of sorted big-endian longs.
+     *
+     * @param files the files, each sorted in ascending order.
+     * @return an iterator over the values of all files, in order.
+     * @throws IOException if a file cannot be mapped.
+     */
+    public static PrimitiveIterator.OfLong mergeLongs(List<Path> files) throws IOException {
+        List<LongRun> cursors = new ArrayList<>(files.size());
+        for (Path file : files) {
+            cursors.add(new LongRun(cursors.size(), map(file, Long.BYTES, "mergeLongs()")));
+        }
+
+        Merger<LongRun> merger = new Merger<>(cursors);
+
+        return new PrimitiveIterator.OfLong() {
+            @Override
+            public boolean hasNext() {
+                return merger.hasNext();
+            }
+
+            @Override
+            public long nextLong() {
+                LongRun run = merger.head();
+                long value = run.head;
+                merger.advance(run);
+                return value;
+            }
+        };
+    }
+
+    /**
+     * Merges files of sorted big-endian ints.
+     *
+     * @param files the files, each sorted in ascending order.
+     * @return an iterator over the values of all files, in order.
+     * @throws IOException if a file cannot be mapped.
+     */
+    public static PrimitiveIterator.OfInt mergeInts(List<Path> files) throws IOException {
+        List<IntRun> cursors = new ArrayList<>(files.size());
+        for (Path file : files) {
+            cursors.add(new IntRun(cursors.size(), map(file, Integer.BYTES, "mergeInts()")));
+        }
+
+        Merger<IntRun> merger = new Merger<>(cursors);
+
+        return new PrimitiveIterator.OfInt() {
+            @Override
+            public boolean hasNext() {
+                return merger.hasNext();
+            }
+
+            @Override
+            public int nextInt() {
+                IntRun run = merger.head();
+                int value = run.head;
+                merger.advance(run);
+                return value;
+            }
+        };
+    }
+
+    /**
+     * Maps a file in windows of at most MAX_WINDOW bytes.
+     *
+     * @param file        the file to map.
+     * @param elementSize the size of the values in the file.
+     * @param method      the name of the calling method, for errors.
+     * @return the mapped windows.
+     * @throws IOException if the file cannot be mapped.
+     */
+    private static ByteBuffer[] map(Path file, int elementSize, String method) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size % elementSize != 0) {
+                throw new IllegalArgumentException(
+                        method + " got file with a partial value: " + file);
+            }
+
+            ByteBuffer[] windows = new ByteBuffer[(int) ((size + MAX_WINDOW - 1) / MAX_WINDOW)];
+            for (int i = 0; i < windows.length; i++) {
+                long position = (long) i * MAX_WINDOW;
+                windows[i] = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(MAX_WINDOW, size - position));
+            }
+            return windows;
+        }
+    }
+
+    /**
+     * Heap of run cursors ordered by their heads. Only runs with a head are
+     * in the heap.
+     */
+    private static final class Merger<R extends Run<R>> {
+
+        private final FibonacciHeap<R> heap = FibonacciHeap.makeHeap();
+
+        private Merger(List<R> runs) {
+            for (R run : runs) {
+                if (run.advance()) heap.insert(run);
+            }
+        }
+
+        private boolean hasNext() {
+            return !heap.isEmpty();
+        }
+
+        /**
+         * Returns the run with the smallest head.
+         */
+        private R head() {
+            if (heap.isEmpty()) throw new NoSuchElementException();
+            return heap.minimum().getElement();
+        }
+
+        /**
+         * Moves the run returned by head() to its next element.
+         */
+        private void advance(R run) {
+            if (run.advance()) heap.replaceMin(run);
+            else heap.deleteMin();
+        }
+    }
+
+    /**
+     * Cursor over a sorted run. Runs with equal heads are ordered by index.
+     */
+    private abstract static class Run<R extends Run<R>> implements Comparable<R> {
+
+        /**
+         * Position of the run in the merged list.
+         */
+        final int index;
+
+        private Run(int index) {
+            this.index = index;
+        }
+
+        /**
+         * Loads the next element of the run as head.
+         *
+         * @return false if the run is exhausted.
+         */
+        abstract boolean advance();
+
+        abstract int compareHead(R other);
+
+        @Override
+        public int compareTo(R other) {
+            int result = compareHead(other);
+            return result != 0 ? result : Integer.compare(index, other.index);
+        }
+    }
+
+    private static final class ObjectRun<E> extends Run<ObjectRun<E>> {
+
+        private final Iterator<? extends E> iterator;
+
+        private final Comparator<? super E> comparator;
+
+        private E head;
+
+        private ObjectRun(int index, Iterator<? extends E> iterator, Comparator<? super E> comparator) {
+            super(index);
+            this.iterator = iterator;
+            this.comparator = comparator;
+        }
+
+        @Override
+        boolean advance() {
+            if (!iterator.hasNext()) {
+                head = null;
+                return false;
+            }
+            head = iterator.next();
+            return true;
+        }
+
+        @Override
+        int compareHead(ObjectRun<E> other) {
+            return comparator.compare(head, other.head);
+        }
+    }
+
+    private static final class LongRun extends Run<LongRun> {
+
+        private final ByteBuffer[] windows;
+
+        private int window = -1;
+
+        private LongBuffer buffer = LongBuffer.allocate(0);
+
+        private long head;
+
+        private LongRun(int index, ByteBuffer[] windows) {
+            super(index);
+            this.windows = windows;
+        }
+
+        @Override
+        boolean advance() {
+            while (!buffer.hasRemaining()) {
+                if (++window == windows.length) return false;
+                buffer = windows[window].asLongBuffer();
+            }
+            head = buffer.get();
+            return true;
+        }
+
+        @Override
+        int compareHead(LongRun other) {
+            return Long.compare(head, other.head);
+        }
+    }
+
+    private static final class IntRun extends Run<IntRun> {
+
+        private final ByteBuffer[] windows;
+
+        private int window = -1;
+
+        private IntBuffer buffer = IntBuffer.allocate(0);
+
+        private int head;
+
+        private IntRun(int index, ByteBuffer[] windows) {
+            super(index);
+            this.windows = windows;
+        }
+
+        @Override
+        boolean advance() {
+            while (!buffer.hasRemaining()) {
+                if (++window == windows.length) return false;
+                buffer = windows[window].asIntBuffer();
+            }
+            head = buffer.get();
+            return true;
+        }
+
+        @Override
+        int compareHead(IntRun other) {
+            return Integer.compare(head, other.head);
+        }
+    }
+}
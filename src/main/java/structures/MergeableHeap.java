@@ -25,7 +25,7 @@ public interface MergeableHeap<E extends Comparable<E>> {
     FibonacciHeap.Node<E> insert(E element);
 
     /**
-     * Union two heaps.
+     * Union two heaps. The other heap is left empty.
      * @param heap the heap to union with.
      */
     void union(FibonacciHeap<E> heap);
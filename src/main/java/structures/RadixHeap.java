@@ -0,0 +1,398 @@
+package structures;
+
+import java.util.Arrays;
+import java.util.function.ToLongFunction;
+
+/**
+ * A monotone radix heap for elements with long keys. Elements are kept in
+ * buckets by the highest bit in which their key differs from the current
+ * minimum key, so bucket 0 holds the keys equal to it and bucket i the keys
+ * whose highest differing bit is i - 1.
+ *
+ * <p>The heap is monotone: inserted and decreased keys must not be smaller
+ * than the key of the last minimum found by minimum() or deleteMin(). This
+ * holds for Dijkstra's algorithm and discrete-event simulation.</p>
+ *
+ * <p>The operations mirror the ones of MergeableHeap, with the handle type
+ * RadixHeap.Node.</p>
+ *
+ * @param <E> the type of the elements in the heap.
+ */
+public class RadixHeap<E> {
+
+    /**
+     * Number of buckets, one for keys equal to the last minimum and one per
+     * bit of a long.
+     */
+    private static final int BUCKETS = Long.SIZE + 1;
+
+    /**
+     * First node of each bucket.
+     */
+    private final Node<E>[] buckets = new Node[BUCKETS];
+
+    /**
+     * Bit i - 1 is set if bucket i is not empty, for buckets 1 to 64.
+     */
+    private long occupied;
+
+    /**
+     * Key of the last minimum found.
+     */
+    private long last;
+
+    /**
+     * Size of the heap.
+     */
+    private int size;
+
+    /**
+     * Function extracting the key of an element.
+     */
+    private final ToLongFunction<? super E> keyFunction;
+
+    /**
+     * Constructs a new RadixHeap with the given key function.
+     *
+     * @param keyFunction the function extracting the key of an element.
+     */
+    public RadixHeap(ToLongFunction<? super E> keyFunction) {
+        this.keyFunction = keyFunction;
+    }
+
+    /**
+     * Creates a new heap of long values keyed by themselves.
+     *
+     * <p>Running time: O(1)</p>
+     *
+     * @return a new heap.
+     */
+    public static RadixHeap<Long> makeHeap() {
+        return new RadixHeap<>(Long::longValue);
+    }
+
+    /**
+     * Creates a new heap with the given key function.
+     *
+     * <p>Running time: O(1)</p>
+     *
+     * @param keyFunction the function extracting the key of an element.
+     * @param <E>         the type of the elements in the heap.
+     * @return a new heap.
+     */
+    public static <E> RadixHeap<E> makeHeap(ToLongFunction<? super E> keyFunction) {
+        return new RadixHeap<>(keyFunction);
+    }
+
+    /**
+     * Clears the heap.
+     */
+    public void clear() {
+        Arrays.fill(buckets, null);
+        occupied = 0;
+        last = 0;
+        size = 0;
+    }
+
+    /**
+     * Returns heap size
+     *
+     * @return heap size
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks if the heap is empty.
+     *
+     * @return true if the heap is empty, false otherwise.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Inserts a new element into the heap.
+     *
+     * <p>Running time: O(1)</p>
+     *
+     * @param element the element to insert.
+     * @return the node of the inserted element.
+     */
+    public Node<E> insert(E element) {
+        long key = keyFunction.applyAsLong(element);
+        if (key < last) {
+            throw new IllegalArgumentException(
+                    "insert() got key smaller than last minimum");
+        }
+
+        Node<E> node = new Node<>(element, key);
+        add(node);
+        size++;
+        return node;
+    }
+
+    /**
+     * Moves all elements of the other heap into this one. The other heap is
+     * left empty. If the other heap has a smaller last minimum, the elements
+     * of this heap are redistributed relative to it.
+     *
+     * <p>Running time: O(m), or O(n + m) if this heap is redistributed</p>
+     *
+     * @param heap the heap to unite.
+     */
+    public void union(RadixHeap<E> heap) {
+        if (heap == null || heap == this || heap.isEmpty())
+            return;
+
+        if (heap.last < last) {
+            last = heap.last;
+            for (int i = 0; i < BUCKETS; i++) {
+                redistribute(i);
+            }
+        }
+
+        for (int i = 0; i < BUCKETS; i++) {
+            Node<E> node = heap.buckets[i];
+            while (node != null) {
+                Node<E> next = node.next;
+                add(node);
+                node = next;
+            }
+        }
+
+        size += heap.size;
+        heap.clear();
+    }
+
+    /**
+     * Returns minimum element in the heap. Buckets are redistributed until
+     * bucket 0 holds the minimum, which raises the last minimum key.
+     *
+     * <p>Running time: O(log C) amortized for keys below C</p>
+     *
+     * @return minimum element in the heap.
+     */
+    public Node<E> minimum() {
+        if (buckets[0] == null) {
+            if (occupied == 0) return null;
+
+            int i = Long.numberOfTrailingZeros(occupied) + 1;
+
+            Node<E> min = buckets[i];
+            for (Node<E> node = min.next; node != null; node = node.next) {
+                if (node.key < min.key) min = node;
+            }
+
+            last = min.key;
+            redistribute(i);
+        }
+
+        return buckets[0];
+    }
+
+    /**
+     * Removes and returns minimum element in the heap.
+     *
+     * <p>Running time: O(log C) amortized for keys below C</p>
+     *
+     * @return minimum element in the heap.
+     */
+    public Node<E> deleteMin() {
+        Node<E> min = minimum();
+        if (min != null) {
+            remove(min);
+            size--;
+        }
+        return min;
+    }
+
+    /**
+     * Deletes the given node from the heap.
+     *
+     * <p>Running time: O(1)</p>
+     *
+     * @param node the node to delete.
+     * @return the deleted node.
+     */
+    public Node<E> delete(Node<E> node) {
+        if (node.isRemoved()) {
+            throw new IllegalArgumentException(
+                    "delete() got removed node");
+        }
+
+        remove(node);
+        size--;
+        return node;
+    }
+
+    /**
+     * Decreases the key value for a heap node. The new key must not be
+     * smaller than the last minimum key.
+     *
+     * <p>Running time: O(1)</p>
+     *
+     * @param node    the node to decrease the key of.
+     * @param element the new element of the node.
+     */
+    public void decreaseKey(Node<E> node, E element) {
+        if (node.isRemoved()) {
+            throw new IllegalArgumentException(
+                    "decreaseKey() got removed node");
+        }
+
+        long key = keyFunction.applyAsLong(element);
+        if (key > node.key) {
+            throw new IllegalArgumentException(
+                    "decreaseKey() got larger key value");
+        }
+        if (key < last) {
+            throw new IllegalArgumentException(
+                    "decreaseKey() got key smaller than last minimum");
+        }
+
+        node.element = element;
+        if (bucketOf(key) != node.bucket) {
+            remove(node);
+            node.key = key;
+            add(node);
+        } else {
+            node.key = key;
+        }
+    }
+
+    /**
+     * Returns the bucket for the given key relative to the last minimum.
+     *
+     * @param key the key.
+     * @return the bucket index.
+     */
+    private int bucketOf(long key) {
+        return key == last ? 0 : Long.SIZE - Long.numberOfLeadingZeros(key ^ last);
+    }
+
+    /**
+     * Moves all nodes of the given bucket to their buckets relative to the
+     * current last minimum.
+     *
+     * @param bucket the bucket to redistribute.
+     */
+    private void redistribute(int bucket) {
+        Node<E> node = buckets[bucket];
+        buckets[bucket] = null;
+        if (bucket > 0) occupied &= ~(1L << (bucket - 1));
+
+        while (node != null) {
+            Node<E> next = node.next;
+            add(node);
+            node = next;
+        }
+    }
+
+    /**
+     * Adds a node to the front of its bucket.
+     *
+     * @param node the node to add.
+     */
+    private void add(Node<E> node) {
+        int bucket = bucketOf(node.key);
+        Node<E> head = buckets[bucket];
+
+        node.bucket = bucket;
+        node.prev = null;
+        node.next = head;
+        if (head != null) head.prev = node;
+        buckets[bucket] = node;
+
+        if (bucket > 0) occupied |= 1L << (bucket - 1);
+    }
+
+    /**
+     * Removes a node from its bucket and marks it as removed.
+     *
+     * @param node the node to remove.
+     */
+    private void remove(Node<E> node) {
+        if (node.prev != null) {
+            node.prev.next = node.next;
+        } else {
+            buckets[node.bucket] = node.next;
+            if (node.next == null && node.bucket > 0) occupied &= ~(1L << (node.bucket - 1));
+        }
+        if (node.next != null) node.next.prev = node.prev;
+
+        node.prev = null;
+        node.next = null;
+        node.bucket = -1;
+    }
+
+    /**
+     * A node in the radix heap.
+     */
+    public static class Node<E> {
+        /**
+         * Data stored in the node.
+         */
+        private E element;
+        /**
+         * Key of the element.
+         */
+        private long key;
+        /**
+         * Bucket holding the node, or -1 if it is not in a heap.
+         */
+        private int bucket;
+        /**
+         * Previous node in the bucket.
+         */
+        private Node<E> prev;
+        /**
+         * Next node in the bucket.
+         */
+        private Node<E> next;
+
+        public Node(E element, long key) {
+            this.element = element;
+            this.key = key;
+            this.bucket = -1;
+        }
+
+        /**
+         * Returns the data stored in the node.
+         *
+         * @return the data stored in the node.
+         */
+        public E getElement() {
+            return element;
+        }
+
+        /**
+         * Returns the key of the node.
+         *
+         * @return the key of the node.
+         */
+        public long getKey() {
+            return key;
+        }
+
+        /**
+         * Checks if the node has been removed from its heap, by deleteMin or
+         * by delete.
+         *
+         * @return true if the node is not in a heap.
+         */
+        public boolean isRemoved() {
+            return bucket < 0;
+        }
+
+        /**
+         * ToString override.
+         * @return String representation of the node.
+         */
+        @Override
+        public String toString() {
+            return element == null ? null : element.toString();
+        }
+    }
+}
@@ -0,0 +1,337 @@
+package structures;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A discrete-event simulation kernel with a FibonacciHeap as event calendar.
+ * Events run in order of their time. Events with equal times run in the
+ * order they were scheduled.
+ *
+ * <p>All events of the next time are taken from the calendar at once and
+ * run as a batch. Batches of at least the parallel threshold run in parallel
+ * on the common fork/join pool; the kernel is then locked while an event
+ * schedules, cancels or reschedules. Events scheduled by a batch at the same
+ * time run in the next batch.</p>
+ *
+ * <p>Cancellation uses lazy deletion in the calendar, so it takes O(1)
+ * amortized time.</p>
+ */
+public class Simulation {
+
+    /**
+     * Maximum fraction of cancelled events kept in the calendar.
+     */
+    private static final double MAX_CANCELLED_RATIO = 0.5;
+
+    /**
+     * Pending events ordered by time and sequence number.
+     */
+    private final FibonacciHeap<Event> calendar = FibonacciHeap.makeHeap();
+
+    /**
+     * Events of the current batch.
+     */
+    private final List<Event> batch = new ArrayList<>();
+
+    /**
+     * Simulation time of the current batch.
+     */
+    private double now;
+
+    /**
+     * Sequence number of the next scheduled event.
+     */
+    private long sequence;
+
+    /**
+     * Number of events run so far.
+     */
+    private long executedCount;
+
+    /**
+     * Minimum batch size to run in parallel.
+     */
+    private int parallelThreshold = Integer.MAX_VALUE;
+
+    /**
+     * Constructs a new Simulation at time 0.
+     */
+    public Simulation() {
+        calendar.setMaxTombstoneRatio(MAX_CANCELLED_RATIO);
+    }
+
+    /**
+     * Sets the minimum size of a batch of events with equal times to run it
+     * in parallel. Events of such a batch must not depend on each other.
+     *
+     * @param threshold the minimum batch size, Integer.MAX_VALUE to always
+     *                  run sequentially.
+     */
+    public void setParallelThreshold(int threshold) {
+        if (threshold < 2) {
+            throw new IllegalArgumentException(
+                    "setParallelThreshold() got threshold smaller than 2");
+        }
+
+        parallelThreshold = threshold;
+    }
+
+    /**
+     * Returns the minimum size of a batch to run it in parallel.
+     *
+     * @return the parallel threshold.
+     */
+    public int getParallelThreshold() {
+        return parallelThreshold;
+    }
+
+    /**
+     * Returns the current simulation time.
+     *
+     * @return the time of the events being run, or of the last ones run.
+     */
+    public double now() {
+        return now;
+    }
+
+    /**
+     * Returns the number of pending events.
+     *
+     * @return pending event count
+     */
+    public synchronized int pendingCount() {
+        return calendar.size();
+    }
+
+    /**
+     * Returns the number of events run so far.
+     *
+     * @return executed event count
+     */
+    public synchronized long getExecutedCount() {
+        return executedCount;
+    }
+
+    /**
+     * Schedules an action after the given delay.
+     *
+     * <p>Running time: O(1)</p>
+     *
+     * @param delay  the non-negative delay from now.
+     * @param action the action to run.
+     * @return the scheduled event.
+     */
+    public Event schedule(double delay, Runnable action) {
+        if (!(delay >= 0)) {
+            throw new IllegalArgumentException(
+                    "schedule() got negative delay");
+        }
+
+        return scheduleAt(now + delay, action);
+    }
+
+    /**
+     * Schedules an action at the given time.
+     *
+     * <p>Running time: O(1)</p>
+     *
+     * @param time   the time, not before now.
+     * @param action the action to run.
+     * @return the scheduled event.
+     */
+    public synchronized Event scheduleAt(double time, Runnable action) {
+        if (!(time >= now)) {
+            throw new IllegalArgumentException(
+                    "scheduleAt() got time in the past");
+        }
+
+        Event event = new Event(time, sequence++, action);
+        event.node = calendar.insert(event);
+        return event;
+    }
+
+    /**
+     * Cancels a pending event. An event taken for the current batch is
+     * cancelled too if it has not run yet.
+     *
+     * <p>Running time: O(1) amortized</p>
+     *
+     * @param event the event to cancel.
+     * @return true if the event was cancelled, false if it already ran or
+     * was cancelled.
+     */
+    public synchronized boolean cancel(Event event) {
+        if (event.state == Event.PENDING) {
+            calendar.delete(event.node);
+        } else if (event.state != Event.BATCHED) {
+            return false;
+        }
+
+        event.node = null;
+        event.state = Event.CANCELLED;
+        return true;
+    }
+
+    /**
+     * Moves a pending event to an earlier time. It runs after the events
+     * already scheduled at that time.
+     *
+     * <p>Running time: O(1) amortized</p>
+     *
+     * @param event the event to reschedule.
+     * @param time  the new time, not before now and before the event time.
+     */
+    public synchronized void reschedule(Event event, double time) {
+        if (event.state != Event.PENDING) {
+            throw new IllegalArgumentException(
+                    "reschedule() got event that is not pending");
+        }
+        if (!(time >= now)) {
+            throw new IllegalArgumentException(
+                    "reschedule() got time in the past");
+        }
+        if (!(time < event.time)) {
+            throw new IllegalArgumentException(
+                    "reschedule() got time not before the event time");
+        }
+
+        // a smaller time makes a smaller key whatever the sequence number,
+        // so the key can be changed in place before decreasing it
+        event.time = time;
+        event.sequence = sequence++;
+        calendar.decreaseKey(event.node, event);
+    }
+
+    /**
+     * Runs the events of the next time.
+     *
+     * @return false if no event was pending.
+     */
+    public boolean step() {
+        synchronized (this) {
+            if (calendar.isEmpty()) return false;
+
+            Event event = calendar.deleteMin().getElement();
+            now = event.time;
+            take(event);
+
+            while (!calendar.isEmpty() && calendar.minimum().getElement().time == now) {
+                take(calendar.deleteMin().getElement());
+            }
+        }
+
+        if (batch.size() >= parallelThreshold) {
+            batch.parallelStream().forEach(this::execute);
+        } else {
+            for (Event event : batch) {
+                execute(event);
+            }
+        }
+
+        synchronized (this) {
+            executedCount += batch.size();
+            batch.clear();
+        }
+        return true;
+    }
+
+    /**
+     * Runs events until none is pending.
+     */
+    public void run() {
+        while (step()) ;
+    }
+
+    /**
+     * Runs the events up to and including the given time.
+     *
+     * @param time the last time to run.
+     */
+    public void runUntil(double time) {
+        while (true) {
+            synchronized (this) {
+                if (calendar.isEmpty() || calendar.minimum().getElement().time > time) return;
+            }
+            step();
+        }
+    }
+
+    private void take(Event event) {
+        event.node = null;
+        event.state = Event.BATCHED;
+        batch.add(event);
+    }
+
+    private void execute(Event event) {
+        synchronized (this) {
+            if (event.state != Event.BATCHED) return;
+            event.state = Event.EXECUTED;
+        }
+        event.action.run();
+    }
+
+    /**
+     * An event scheduled in the simulation.
+     */
+    public static final class Event implements Comparable<Event> {
+        private static final int PENDING = 0;
+        private static final int BATCHED = 1;
+        private static final int EXECUTED = 2;
+        private static final int CANCELLED = 3;
+
+        /**
+         * Time the event runs at.
+         */
+        private double time;
+        /**
+         * Scheduling order, breaking ties between equal times.
+         */
+        private long sequence;
+        private final Runnable action;
+        /**
+         * Calendar node while the event is pending.
+         */
+        private FibonacciHeap.Node<Event> node;
+        private int state;
+
+        private Event(double time, long sequence, Runnable action) {
+            this.time = time;
+            this.sequence = sequence;
+            this.action = action;
+        }
+
+        /**
+         * Returns the time the event runs at.
+         *
+         * @return the event time.
+         */
+        public double getTime() {
+            return time;
+        }
+
+        /**
+         * Checks if the event is still waiting in the calendar.
+         *
+         * @return true if the event is pending.
+         */
+        public boolean isPending() {
+            return state == PENDING;
+        }
+
+        @Override
+        public int compareTo(Event other) {
+            int result = Double.compare(time, other.time);
+            return result != 0 ? result : Long.compare(sequence, other.sequence);
+        }
+
+        /**
+         * ToString override.
+         * @return String representation of the event.
+         */
+        @Override
+        public String toString() {
+            return "Event(" + time + ", " + sequence + ")";
+        }
+    }
+}
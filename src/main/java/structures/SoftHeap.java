@@ -0,0 +1,444 @@
+package structures;
+
+import java.util.Comparator;
+
+/**
+ * A soft heap (Kaplan, Tarjan and Zwick, "Soft heaps simplified"). Elements
+ * are kept in lists at the nodes of binary trees. Moving lists up the trees
+ * makes elements share the key of the node they are in, which may be larger
+ * than their own key. Such elements are corrupted and may be returned by
+ * deleteMin out of order.
+ *
+ * <p>For an error rate ε, at most ε * n of the n inserted elements are
+ * corrupted at any time. In exchange, insert is O(1) amortized and deleteMin
+ * is O(log 1/ε) amortized. Each element returned by deleteMin reports whether
+ * it was corrupted.</p>
+ *
+ * @param <E> the type of the elements in the heap.
+ */
+public class SoftHeap<E extends Comparable<E>> {
+
+    /**
+     * Ranks up to this one hold a single element per node; above it node
+     * lists grow by a factor of 3/2 per rank.
+     */
+    private final int rankThreshold;
+
+    /**
+     * Maximum fraction of corrupted elements.
+     */
+    private final double errorRate;
+
+    /**
+     * Comparator used to compare elements.
+     */
+    private final Comparator<? super E> comparator;
+
+    /**
+     * Root of lowest rank. Roots are linked in increasing rank order.
+     */
+    private Node<E> first;
+
+    /**
+     * Size of the heap.
+     */
+    private int size;
+
+    /**
+     * Number of corrupted elements returned by deleteMin.
+     */
+    private long corruptedCount;
+
+    /**
+     * Constructs a new SoftHeap with the default comparator.
+     *
+     * @param errorRate the maximum fraction of corrupted elements, in (0, 1).
+     */
+    public SoftHeap(double errorRate) {
+        this(errorRate, Comparator.naturalOrder());
+    }
+
+    /**
+     * Constructs a new SoftHeap with the given comparator.
+     *
+     * @param errorRate  the maximum fraction of corrupted elements, in (0, 1).
+     * @param comparator the comparator to use.
+     */
+    public SoftHeap(double errorRate, Comparator<E> comparator) {
+        if (errorRate <= 0 || errorRate >= 1) {
+            throw new IllegalArgumentException(
+                    "SoftHeap() got error rate outside of (0, 1)");
+        }
+
+        this.errorRate = errorRate;
+        this.comparator = comparator;
+        this.rankThreshold = (int) Math.ceil(Math.log(1 / errorRate) / Math.log(2)) + 5;
+    }
+
+    /**
+     * Returns the maximum fraction of corrupted elements.
+     *
+     * @return the error rate.
+     */
+    public double getErrorRate() {
+        return errorRate;
+    }
+
+    /**
+     * Returns the number of corrupted elements returned by deleteMin so far.
+     *
+     * @return the number of corrupted extractions.
+     */
+    public long getCorruptedCount() {
+        return corruptedCount;
+    }
+
+    /**
+     * Clears the heap.
+     */
+    public void clear() {
+        first = null;
+        size = 0;
+    }
+
+    /**
+     * Returns heap size
+     *
+     * @return heap size
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks if the heap is empty.
+     *
+     * @return true if the heap is empty, false otherwise.
+     */
+    public boolean isEmpty() {
+        return first == null;
+    }
+
+    /**
+     * Inserts a new element into the heap.
+     *
+     * <p>Running time: O(1) amortized</p>
+     *
+     * @param element the element to insert.
+     */
+    public void insert(E element) {
+        Node<E> node = new Node<>(new Item<>(element));
+
+        // link roots of equal rank like a binary counter increment
+        while (first != null && first.rank == node.rank) {
+            Node<E> root = first;
+            first = root.next;
+            node = link(node, root);
+        }
+
+        node.prev = null;
+        node.next = first;
+        if (first != null) first.prev = node;
+        first = node;
+
+        updateSuffixMin(node);
+        size++;
+    }
+
+    /**
+     * Merges two heaps. The other heap is left empty.
+     *
+     * <p>Running time: O(r) for the r lowest ranks of the root lists, O(1)
+     * amortized</p>
+     *
+     * @param heap the heap to unite.
+     */
+    public void union(SoftHeap<E> heap) {
+        if (heap == null || heap == this || heap.isEmpty())
+            return;
+
+        if (isEmpty()) {
+            first = heap.first;
+        } else {
+            // insert the other roots into the root list by rank
+            Node<E> prev = null;
+            Node<E> node = first;
+            Node<E> other = heap.first;
+            int maxRank = 0;
+
+            while (other != null) {
+                Node<E> nextOther = other.next;
+                while (node != null && node.rank < other.rank) {
+                    prev = node;
+                    node = node.next;
+                }
+
+                other.prev = prev;
+                other.next = node;
+                if (prev != null) prev.next = other;
+                else first = other;
+                if (node != null) node.prev = other;
+
+                prev = other;
+                maxRank = other.rank;
+                other = nextOther;
+            }
+
+            // link roots of equal rank, at most three of a rank exist
+            node = first;
+            while (node.next != null) {
+                Node<E> next = node.next;
+
+                if (node.rank != next.rank) {
+                    if (node.rank > maxRank) break;
+                    node = next;
+                    continue;
+                }
+
+                if (next.next != null && next.next.rank == node.rank) {
+                    node = next;
+                    continue;
+                }
+
+                Node<E> after = next.next;
+                Node<E> before = node.prev;
+                Node<E> linked = link(node, next);
+
+                linked.prev = before;
+                linked.next = after;
+                if (before != null) before.next = linked;
+                else first = linked;
+                if (after != null) after.prev = linked;
+
+                node = linked;
+            }
+
+            updateSuffixMin(node);
+        }
+
+        size += heap.size;
+        heap.clear();
+    }
+
+    /**
+     * Returns the element deleteMin would return next. Its key is not larger
+     * than the key of the node holding it, which is minimal.
+     *
+     * <p>Running time: O(1)</p>
+     *
+     * @return the next element to be deleted, or null if the heap is empty.
+     */
+    public E minimum() {
+        return first == null ? null : first.suffixMin.head.element;
+    }
+
+    /**
+     * Removes and returns an element of the node with the smallest key.
+     * Unless the element is corrupted, it is the minimum element.
+     *
+     * <p>Running time: O(log 1/ε) amortized</p>
+     *
+     * @return the removed element, or null if the heap is empty.
+     */
+    public Item<E> deleteMin() {
+        if (first == null) return null;
+
+        Node<E> node = first.suffixMin;
+        Item<E> item = node.head;
+
+        node.head = item.next;
+        if (node.head == null) node.tail = null;
+        node.count--;
+        item.next = null;
+
+        item.corrupted = comparator.compare(item.element, node.key) < 0;
+        if (item.corrupted) corruptedCount++;
+
+        if (node.count == 0) {
+            if (isLeaf(node)) {
+                // remove the node from the root list
+                Node<E> prev = node.prev;
+                if (prev != null) prev.next = node.next;
+                else first = node.next;
+                if (node.next != null) node.next.prev = prev;
+
+                if (prev != null) updateSuffixMin(prev);
+            } else {
+                sift(node);
+                updateSuffixMin(node);
+            }
+        }
+
+        size--;
+        return item;
+    }
+
+    /**
+     * Links two trees of equal rank under a new node and fills it from them.
+     *
+     * @param x the first root.
+     * @param y the second root.
+     * @return the new root.
+     */
+    private Node<E> link(Node<E> x, Node<E> y) {
+        Node<E> node = new Node<>(x.rank + 1);
+        node.target = node.rank <= rankThreshold ? 1 : (3 * x.target + 1) / 2;
+        node.left = x;
+        node.right = y;
+
+        sift(node);
+        return node;
+    }
+
+    /**
+     * Moves lists up from the children of a node until its list reaches the
+     * target size or it has no children left. Children left without a list
+     * are refilled, or dropped if they are leaves.
+     *
+     * @param node the node to fill.
+     */
+    private void sift(Node<E> node) {
+        while (node.count < node.target && !isLeaf(node)) {
+            if (node.left == null || (node.right != null
+                    && comparator.compare(node.left.key, node.right.key) > 0)) {
+                Node<E> temp = node.left;
+                node.left = node.right;
+                node.right = temp;
+            }
+
+            Node<E> child = node.left;
+
+            // append the child's list, its elements now share the larger key
+            if (node.tail == null) {
+                node.head = child.head;
+            } else {
+                node.tail.next = child.head;
+            }
+            node.tail = child.tail;
+            node.count += child.count;
+            node.key = child.key;
+
+            child.head = null;
+            child.tail = null;
+            child.count = 0;
+
+            if (isLeaf(child)) node.left = null;
+            else sift(child);
+        }
+    }
+
+    /**
+     * Recomputes the suffix minimum of the given root and of every root
+     * before it.
+     *
+     * @param node the last root to update.
+     */
+    private void updateSuffixMin(Node<E> node) {
+        for (; node != null; node = node.prev) {
+            if (node.next == null || comparator.compare(node.key, node.next.suffixMin.key) <= 0) {
+                node.suffixMin = node;
+            } else {
+                node.suffixMin = node.next.suffixMin;
+            }
+        }
+    }
+
+    private boolean isLeaf(Node<E> node) {
+        return node.left == null && node.right == null;
+    }
+
+    /**
+     * An element stored in the soft heap.
+     */
+    public static class Item<E> {
+        /**
+         * Data stored in the item.
+         */
+        private final E element;
+        /**
+         * Next item in the list of the node.
+         */
+        private Item<E> next;
+        /**
+         * True if the item was returned while sharing a larger key.
+         */
+        private boolean corrupted;
+
+        private Item(E element) {
+            this.element = element;
+        }
+
+        /**
+         * Returns the data stored in the item.
+         *
+         * @return the data stored in the item.
+         */
+        public E getElement() {
+            return element;
+        }
+
+        /**
+         * Returns whether the item had a larger key than its own when it was
+         * deleted, so it may have been returned out of order.
+         *
+         * @return true if the item was corrupted.
+         */
+        public boolean isCorrupted() {
+            return corrupted;
+        }
+
+        /**
+         * ToString override.
+         * @return String representation of the item.
+         */
+        @Override
+        public String toString() {
+            return element == null ? null : element.toString();
+        }
+    }
+
+    /**
+     * A node of a soft heap tree, holding a list of items that share its key.
+     */
+    private static final class Node<E> {
+        /**
+         * Key of the node, not smaller than the keys of its items.
+         */
+        private E key;
+        private int rank;
+        /**
+         * Number of items the node is filled up to.
+         */
+        private int target;
+        /**
+         * Number of items in the list.
+         */
+        private int count;
+        private Item<E> head;
+        private Item<E> tail;
+        private Node<E> left;
+        private Node<E> right;
+        /**
+         * Neighbours in the root list.
+         */
+        private Node<E> prev;
+        private Node<E> next;
+        /**
+         * Root with the smallest key among this root and the roots after it.
+         */
+        private Node<E> suffixMin;
+
+        private Node(int rank) {
+            this.rank = rank;
+        }
+
+        private Node(Item<E> item) {
+            this.key = item.element;
+            this.target = 1;
+            this.count = 1;
+            this.head = item;
+            this.tail = item;
+            this.suffixMin = this;
+        }
+    }
+}
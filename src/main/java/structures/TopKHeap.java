@@ -0,0 +1,197 @@
+package structures;
+
+import java.util.*;
+import java.util.stream.Collector;
+
+/**
+ * A heap that keeps at most capacity of the best elements it has been offered.
+ * The best elements are the smallest ones according to the comparator, the
+ * same ones a FibonacciHeap would return first from deleteMin.
+ *
+ * <p>The elements are stored in a FibonacciHeap ordered by the reversed
+ * comparator, so the worst kept element is always its minimum. This makes
+ * rejecting an element that is not better than the worst one O(1).</p>
+ *
+ * @param <E> the type of the elements in the heap.
+ */
+public class TopKHeap<E extends Comparable<E>> {
+
+    /**
+     * Kept elements, worst element first.
+     */
+    private final FibonacciHeap<E> heap;
+
+    /**
+     * Comparator used to compare elements, best element first.
+     */
+    private final Comparator<E> comparator;
+
+    /**
+     * Maximum number of kept elements.
+     */
+    private final int capacity;
+
+    /**
+     * Constructs a new TopKHeap with the default comparator.
+     *
+     * @param capacity the maximum number of elements to keep.
+     */
+    public TopKHeap(int capacity) {
+        this(capacity, Comparator.naturalOrder());
+    }
+
+    /**
+     * Constructs a new TopKHeap with the given comparator.
+     *
+     * @param capacity   the maximum number of elements to keep.
+     * @param comparator the comparator to use.
+     */
+    public TopKHeap(int capacity, Comparator<E> comparator) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException(
+                    "TopKHeap() got non-positive capacity");
+        }
+
+        this.capacity = capacity;
+        this.comparator = comparator;
+        this.heap = new FibonacciHeap<>(comparator.reversed());
+    }
+
+    /**
+     * Returns a collector that keeps the k best elements of a stream and
+     * returns them sorted, best element first.
+     *
+     * @param k   the number of elements to keep.
+     * @param <E> the type of the elements.
+     * @return a top-k collector.
+     */
+    public static <E extends Comparable<E>> Collector<E, ?, List<E>> toTopK(int k) {
+        return toTopK(k, Comparator.<E>naturalOrder());
+    }
+
+    /**
+     * Returns a collector that keeps the k best elements of a stream according
+     * to the given comparator and returns them sorted, best element first.
+     *
+     * @param k          the number of elements to keep.
+     * @param comparator the comparator to use.
+     * @param <E>        the type of the elements.
+     * @return a top-k collector.
+     */
+    public static <E extends Comparable<E>> Collector<E, ?, List<E>> toTopK(int k, Comparator<E> comparator) {
+        return Collector.of(
+                () -> new TopKHeap<>(k, comparator),
+                TopKHeap::offer,
+                (left, right) -> {
+                    left.union(right);
+                    return left;
+                },
+                TopKHeap::drainSorted,
+                Collector.Characteristics.UNORDERED);
+    }
+
+    /**
+     * Offers an element to the heap. If the heap is full, the element is only
+     * kept if it is better than the worst kept element, which is evicted.
+     *
+     * <p>Running time: O(1) if the element is rejected, O(log k) otherwise</p>
+     *
+     * @param element the element to offer.
+     * @return true if the element was kept, false if it was rejected.
+     */
+    public boolean offer(E element) {
+        if (heap.size() < capacity) {
+            heap.insert(element);
+            return true;
+        }
+
+        // Not better than the worst kept element.
+        if (comparator.compare(element, heap.minimum().getElement()) >= 0) {
+            return false;
+        }
+
+        heap.deleteMin();
+        heap.insert(element);
+        return true;
+    }
+
+    /**
+     * Moves all elements of the other heap into this one, evicting the worst
+     * elements until the capacity is respected. The other heap is left empty.
+     *
+     * <p>Running time: O(m log(k + m)) for m evicted elements</p>
+     *
+     * @param other the heap to unite.
+     */
+    public void union(TopKHeap<E> other) {
+        if (other == null || other == this || other.isEmpty())
+            return;
+
+        heap.union(other.heap);
+
+        while (heap.size() > capacity) {
+            heap.deleteMin();
+        }
+    }
+
+    /**
+     * Returns the worst kept element.
+     *
+     * <p>Running time: O(1)</p>
+     *
+     * @return the worst kept element, or null if the heap is empty.
+     */
+    public E worst() {
+        return heap.isEmpty() ? null : heap.minimum().getElement();
+    }
+
+    /**
+     * Removes all elements and returns them sorted, best element first.
+     *
+     * <p>Running time: O(k log k)</p>
+     *
+     * @return the kept elements, best element first.
+     */
+    public List<E> drainSorted() {
+        List<E> elements = new ArrayList<>(heap.size());
+        while (!heap.isEmpty()) {
+            elements.add(heap.deleteMin().getElement());
+        }
+        Collections.reverse(elements);
+        return elements;
+    }
+
+    /**
+     * Returns the maximum number of kept elements.
+     *
+     * @return the capacity of the heap.
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns heap size
+     *
+     * @return heap size
+     */
+    public int size() {
+        return heap.size();
+    }
+
+    /**
+     * Checks if the heap is empty.
+     *
+     * @return true if the heap is empty, false otherwise.
+     */
+    public boolean isEmpty() {
+        return heap.isEmpty();
+    }
+
+    /**
+     * Clears the heap.
+     */
+    public void clear() {
+        heap.clear();
+    }
+}